@@ -0,0 +1,61 @@
+package com.example.rqchallenge.benchmarks;
+
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.example.rqchallenge.RqChallengeApplication;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.employees.EmployeeHandler;
+
+/**
+ * Benchmarks {@link EmployeeHandler#getAllEmployees()} apart from the other operations, since it
+ * materializes the whole table as one list: at 10M rows that measures the garbage collector rather
+ * than the handler, so it stops at 1M.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class EmployeeFindAllBenchmark {
+
+  @Param({"10000", "1000000"})
+  private int rows;
+
+  private ConfigurableApplicationContext context;
+
+  private EmployeeHandler employeeHandler;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(RqChallengeApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "spring.main.banner-mode=off", "logging.level.com.example=WARN")
+        .run();
+    EmployeeSeeder.seed(context.getBean(JdbcTemplate.class), rows, 0);
+    employeeHandler = context.getBean(EmployeeHandler.class);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public ResponseEntity<List<Employee>> getAllEmployees() {
+    return employeeHandler.getAllEmployees();
+  }
+}
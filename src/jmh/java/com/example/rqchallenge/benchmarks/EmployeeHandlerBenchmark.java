@@ -0,0 +1,119 @@
+package com.example.rqchallenge.benchmarks;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.example.rqchallenge.RqChallengeApplication;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.EmployeeInput;
+import com.example.rqchallenge.domain.SalaryStats;
+import com.example.rqchallenge.employees.EmployeeHandler;
+import com.example.rqchallenge.employees.exceptions.EmployeeNotFoundException;
+import com.example.rqchallenge.employees.exceptions.EmployeeValidationException;
+import com.example.rqchallenge.employees.index.EmployeeIndexes;
+
+/**
+ * Benchmarks each {@link EmployeeHandler} operation against an in-memory H2 database. Throughput,
+ * latency percentiles and allocation rate come from the modes and profilers configured in the jmh
+ * block of build.gradle. Listing every employee is benchmarked separately, with fewer rows.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class EmployeeHandlerBenchmark {
+
+  private static final int SAMPLE_IDS = 10_000;
+
+  @Param({"10000", "1000000", "10000000"})
+  private int rows;
+
+  private ConfigurableApplicationContext context;
+
+  private EmployeeHandler employeeHandler;
+
+  private List<String> sampleIds;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(RqChallengeApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "spring.main.banner-mode=off", "logging.level.com.example=WARN")
+        .run();
+    sampleIds = EmployeeSeeder.seed(context.getBean(JdbcTemplate.class), rows, SAMPLE_IDS);
+    // the indexes were built from the empty table at startup
+    context.getBean(EmployeeIndexes.class).rebuild();
+    employeeHandler = context.getBean(EmployeeHandler.class);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public ResponseEntity<List<Employee>> getEmployeesByNameSearch()
+      throws EmployeeValidationException {
+    return employeeHandler.getEmployeesByNameSearch("ann", null);
+  }
+
+  @Benchmark
+  public ResponseEntity<Employee> getEmployeeByIdHit() throws EmployeeNotFoundException {
+    return employeeHandler.getEmployeeById(randomSampleId());
+  }
+
+  @Benchmark
+  public Object getEmployeeByIdMiss() {
+    try {
+      return employeeHandler.getEmployeeById(UUID.randomUUID().toString());
+    } catch (EmployeeNotFoundException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
+    return employeeHandler.getHighestSalaryOfEmployees();
+  }
+
+  @Benchmark
+  public ResponseEntity<SalaryStats> getSalaryStats() {
+    return employeeHandler.getSalaryStats();
+  }
+
+  @Benchmark
+  public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
+    return employeeHandler.getTopTenHighestEarningEmployeeNames();
+  }
+
+  /**
+   * Deletes what it creates so the table stays the same size across iterations.
+   */
+  @Benchmark
+  public ResponseEntity<String> createThenDeleteEmployee()
+      throws EmployeeValidationException, EmployeeNotFoundException {
+    EmployeeInput input = new EmployeeInput("Benchmark Employee", 75_000, 40);
+    Employee employee = employeeHandler.createEmployee(input).getBody();
+    return employeeHandler.deleteEmployeeById(employee.getId());
+  }
+
+  private String randomSampleId() {
+    return sampleIds.get(ThreadLocalRandom.current().nextInt(sampleIds.size()));
+  }
+}
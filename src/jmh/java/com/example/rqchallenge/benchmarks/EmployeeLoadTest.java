@@ -0,0 +1,196 @@
+package com.example.rqchallenge.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import com.example.rqchallenge.RqChallengeApplication;
+import com.example.rqchallenge.employees.index.EmployeeIndexes;
+
+/**
+ * Compares how many concurrent requests each execution mode can serve. Every statement is delayed
+ * to stand in for a database on another host, so request threads spend most of their time
+ * blocked on JDBC, as they do in production. In platform mode throughput levels off at Tomcat's
+ * 200 threads; in virtual mode it keeps rising until the connection pool is exhausted.
+ *
+ * <p>
+ * Run with {@code ./gradlew loadTest -PloadTestModes=platform,virtual} on Java 21.
+ */
+public final class EmployeeLoadTest {
+
+  private static final int ROWS = 100_000;
+
+  private static final int SAMPLE_IDS = 10_000;
+
+  private static final int POOL_SIZE = 1000;
+
+  private static final long STATEMENT_LATENCY_MILLIS = 20;
+
+  private static final int[] CONCURRENCY = {50, 200, 400, 800};
+
+  private static final Duration WARMUP = Duration.ofSeconds(5);
+
+  private static final Duration MEASUREMENT = Duration.ofSeconds(15);
+
+  private EmployeeLoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    String[] modes = args.length > 0 ? args[0].split(",") : new String[] {"platform", "virtual"};
+    System.out.printf("%-10s %11s %10s %9s %9s %7s%n", "mode", "concurrency", "req/s", "p50 ms",
+        "p99 ms", "errors");
+    for (String mode : modes) {
+      run(mode.trim());
+    }
+  }
+
+  private static void run(String mode) throws Exception {
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(
+        RqChallengeApplication.class)
+            .initializers(applicationContext -> applicationContext.getBeanFactory()
+                .addBeanPostProcessor(new StatementLatencyPostProcessor()))
+            .properties("server.port=0", "employees.execution.mode=" + mode,
+                "spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                // measures the execution mode itself, so nothing is shed
+                "employees.concurrency.enabled=false", "spring.main.banner-mode=off",
+                "logging.level.root=WARN")
+            .run();
+    try {
+      List<String> sampleIds =
+          EmployeeSeeder.seed(context.getBean(JdbcTemplate.class), ROWS, SAMPLE_IDS);
+      context.getBean(EmployeeIndexes.class).rebuild();
+      String baseUrl =
+          "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+      measure(baseUrl, sampleIds, CONCURRENCY[0], WARMUP);
+      for (int concurrency : CONCURRENCY) {
+        Result result = measure(baseUrl, sampleIds, concurrency, MEASUREMENT);
+        System.out.printf("%-10s %11d %10.0f %9.1f %9.1f %7d%n", mode, concurrency,
+            result.latencies.size() / (double) MEASUREMENT.toSeconds(),
+            result.percentileMillis(0.5), result.percentileMillis(0.99), result.errors);
+      }
+    } finally {
+      context.close();
+    }
+  }
+
+  /**
+   * Keeps concurrency requests in flight for the given duration. Each request reads a page after
+   * a random employee, which always reaches the database because pages aren't cached.
+   */
+  private static Result measure(String baseUrl, List<String> sampleIds, int concurrency,
+      Duration duration) throws Exception {
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+    long deadline = System.nanoTime() + duration.toNanos();
+    AtomicInteger errors = new AtomicInteger();
+    List<Callable<List<Long>>> workers = new ArrayList<>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      workers.add(() -> {
+        List<Long> latencies = new ArrayList<>();
+        while (System.nanoTime() < deadline) {
+          String after = sampleIds.get(ThreadLocalRandom.current().nextInt(sampleIds.size()));
+          HttpRequest request =
+              HttpRequest.newBuilder(URI.create(baseUrl + "/page?limit=20&after=" + after))
+                  .build();
+          long start = System.nanoTime();
+          try {
+            HttpResponse<Void> response =
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() == 200) {
+              latencies.add(System.nanoTime() - start);
+            } else {
+              errors.incrementAndGet();
+            }
+          } catch (Exception e) {
+            errors.incrementAndGet();
+          }
+        }
+        return latencies;
+      });
+    }
+    List<Long> latencies = new ArrayList<>();
+    try {
+      for (Future<List<Long>> future : clients.invokeAll(workers)) {
+        latencies.addAll(future.get());
+      }
+    } finally {
+      clients.shutdown();
+    }
+    Collections.sort(latencies);
+    return new Result(latencies, errors.get());
+  }
+
+  private static final class Result {
+
+    private final List<Long> latencies;
+
+    private final int errors;
+
+    private Result(List<Long> latencies, int errors) {
+      this.latencies = latencies;
+      this.errors = errors;
+    }
+
+    private double percentileMillis(double percentile) {
+      if (latencies.isEmpty()) {
+        return Double.NaN;
+      }
+      int index = (int) Math.ceil(percentile * latencies.size()) - 1;
+      return latencies.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+  }
+
+  /**
+   * Wraps the data source so that preparing a statement takes as long as a network round trip.
+   */
+  private static final class StatementLatencyPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (!(bean instanceof DataSource)) {
+        return bean;
+      }
+      return new DelegatingDataSource((DataSource) bean) {
+        @Override
+        public Connection getConnection() throws SQLException {
+          return withStatementLatency(super.getConnection());
+        }
+      };
+    }
+
+    private static Connection withStatementLatency(Connection connection) {
+      return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+          new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+            if (method.getName().startsWith("prepare")) {
+              Thread.sleep(STATEMENT_LATENCY_MILLIS);
+            }
+            try {
+              return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+              throw e.getCause();
+            }
+          });
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.example.rqchallenge.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import com.example.rqchallenge.RqChallengeApplication;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.EmployeeSalary;
+import com.example.rqchallenge.employees.EmployeeRepository;
+
+/**
+ * Compares the throughput of the H2/JPA repository with the in-memory one under concurrent
+ * access, calling the repository directly so the caches and indexes in front of it don't hide
+ * the difference.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@Threads(8)
+public class EmployeeRepositoryBenchmark {
+
+  private static final int SAMPLE_IDS = 10_000;
+
+  @Param({"jpa", "in-memory"})
+  private String repository;
+
+  @Param({"10000", "100000"})
+  private int rows;
+
+  private ConfigurableApplicationContext context;
+
+  private EmployeeRepository employeeRepository;
+
+  private List<String> sampleIds;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(RqChallengeApplication.class)
+        .web(WebApplicationType.NONE)
+        .profiles("jpa".equals(repository) ? new String[0] : new String[] {repository})
+        .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "spring.main.banner-mode=off", "logging.level.com.example=WARN")
+        .run();
+    employeeRepository = context.getBean(EmployeeRepository.class);
+    List<Employee> employees = EmployeeSeeder.generate(rows);
+    employeeRepository.saveAll(employees);
+    sampleIds = employees.stream().limit(SAMPLE_IDS).map(Employee::getId)
+        .collect(Collectors.toList());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Optional<Employee> findById() {
+    return employeeRepository.findById(randomSampleId());
+  }
+
+  @Benchmark
+  public List<Employee> findPageAfter() {
+    return employeeRepository.findPageAfter(randomSampleId(), PageRequest.of(0, 100));
+  }
+
+  @Benchmark
+  public List<Employee> findByNameContainsIgnoreCase() {
+    return employeeRepository.findByNameContainsIgnoreCase("ann");
+  }
+
+  @Benchmark
+  public List<EmployeeSalary> findFirst10ByOrderBySalaryDesc() {
+    return employeeRepository.findFirst10ByOrderBySalaryDesc();
+  }
+
+  /**
+   * Removes what it saves so the table stays the same size across iterations.
+   */
+  @Benchmark
+  public int saveThenRemove() {
+    Employee employee = new Employee();
+    employee.setId(UUID.randomUUID().toString());
+    employee.setName("Benchmark Employee");
+    employee.setSalary(75_000);
+    employee.setAge(40);
+    employeeRepository.save(employee);
+    return employeeRepository.removeById(employee.getId());
+  }
+
+  private String randomSampleId() {
+    return sampleIds.get(ThreadLocalRandom.current().nextInt(sampleIds.size()));
+  }
+}
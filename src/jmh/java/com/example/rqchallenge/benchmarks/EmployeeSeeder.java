@@ -0,0 +1,92 @@
+package com.example.rqchallenge.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.example.rqchallenge.domain.Employee;
+
+/**
+ * Inserts generated employees straight through JDBC, which is far faster than going through the
+ * handler when seeding millions of rows.
+ */
+public final class EmployeeSeeder {
+
+  private static final String INSERT_EMPLOYEE =
+      "insert into employee (id, name, salary, age) values (?, ?, ?, ?)";
+
+  private static final String[] FIRST_NAMES = {"Ann", "Bob", "Carla", "Dmitri", "Elena", "Farid",
+      "Grace", "Hiroshi", "Ines", "Joanne", "Kwame", "Lena", "Marco", "Nadia", "Oscar", "Priya"};
+
+  private static final String[] LAST_NAMES = {"Anders", "Brown", "Chen", "Diaz", "Evans",
+      "Fischer", "Garcia", "Hansen", "Ito", "Johnson", "Kim", "Lopez", "Miller", "Novak"};
+
+  private static final int BATCH_SIZE = 5000;
+
+  private EmployeeSeeder() {}
+
+  /**
+   * @param jdbcTemplate the template for the database to seed
+   * @param rows the number of employees to insert
+   * @param sampleSize the number of inserted IDs to return
+   * @return the IDs of the first sampleSize employees inserted
+   */
+  public static List<String> seed(JdbcTemplate jdbcTemplate, int rows, int sampleSize) {
+    // a fixed seed keeps the data set identical between runs so results are comparable
+    Random random = new Random(42);
+    List<String> sampleIds = new ArrayList<>(sampleSize);
+    List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < rows; i++) {
+      String id = randomId(random);
+      if (sampleIds.size() < sampleSize) {
+        sampleIds.add(id);
+      }
+      batch.add(new Object[] {id, randomName(random), randomSalary(random), randomAge(random)});
+      if (batch.size() == BATCH_SIZE) {
+        jdbcTemplate.batchUpdate(INSERT_EMPLOYEE, batch);
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_EMPLOYEE, batch);
+    }
+    return sampleIds;
+  }
+
+  /**
+   * @param rows the number of employees to generate
+   * @return employees like those {@link #seed} inserts, without touching a database
+   */
+  public static List<Employee> generate(int rows) {
+    Random random = new Random(42);
+    List<Employee> employees = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      Employee employee = new Employee();
+      employee.setId(randomId(random));
+      employee.setName(randomName(random));
+      employee.setSalary(randomSalary(random));
+      employee.setAge(randomAge(random));
+      employees.add(employee);
+    }
+    return employees;
+  }
+
+  // drawn from the seeded generator, unlike UUID.randomUUID, so the IDs are identical between runs
+  private static String randomId(Random random) {
+    return new UUID(random.nextLong(), random.nextLong()).toString();
+  }
+
+  private static String randomName(Random random) {
+    return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+        + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+  }
+
+  private static int randomSalary(Random random) {
+    return 30_000 + random.nextInt(220_000);
+  }
+
+  private static int randomAge(Random random) {
+    return 18 + random.nextInt(50);
+  }
+}
@@ -0,0 +1,113 @@
+package com.example.rqchallenge.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.employees.EmployeeColumnarHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * Compares the CPU cost of each encoding negotiable for employee lists, with and without gzip.
+ * The encoded and gzipped size of each is printed at the start of the trials without gzip.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmployeeSerializationBenchmark {
+
+  @Param({"1000", "100000"})
+  private int rows;
+
+  @Param({"false", "true"})
+  private boolean gzip;
+
+  private List<Employee> employees;
+
+  private ObjectWriter json;
+
+  private ObjectWriter smile;
+
+  private ObjectWriter cbor;
+
+  private EmployeeColumnarHttpMessageConverter columnar;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    employees = EmployeeSeeder.generate(rows);
+    json = new ObjectMapper().writer();
+    smile = new SmileMapper().writer();
+    cbor = new CBORMapper().writer();
+    columnar = new EmployeeColumnarHttpMessageConverter();
+    if (!gzip) {
+      System.out.printf("%n%-10s %12s %12s%n", "encoding", "bytes", "gzip bytes");
+      printSize("json", json());
+      printSize("smile", smile());
+      printSize("cbor", cbor());
+      printSize("columnar", columnar());
+    }
+  }
+
+  @Benchmark
+  public byte[] json() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream outputStream = wrap(bytes)) {
+      json.writeValue(outputStream, employees);
+    }
+    return bytes.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] smile() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream outputStream = wrap(bytes)) {
+      smile.writeValue(outputStream, employees);
+    }
+    return bytes.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] cbor() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream outputStream = wrap(bytes)) {
+      cbor.writeValue(outputStream, employees);
+    }
+    return bytes.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] columnar() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream outputStream = wrap(bytes)) {
+      columnar.write(employees, outputStream);
+    }
+    return bytes.toByteArray();
+  }
+
+  private OutputStream wrap(ByteArrayOutputStream bytes) throws IOException {
+    return gzip ? new GZIPOutputStream(bytes) : bytes;
+  }
+
+  private void printSize(String encoding, byte[] encoded) throws IOException {
+    ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+    try (OutputStream outputStream = new GZIPOutputStream(gzipped)) {
+      outputStream.write(encoded);
+    }
+    System.out.printf("%-10s %12d %12d%n", encoding, encoded.length, gzipped.size());
+  }
+}
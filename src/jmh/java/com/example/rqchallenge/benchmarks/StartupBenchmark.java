@@ -0,0 +1,155 @@
+package com.example.rqchallenge.benchmarks;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import com.example.rqchallenge.RqChallengeApplication;
+
+/**
+ * Measures the time from launching a JVM to the first request served, for the default
+ * configuration, the fast-start profile, and the fast-start profile with an AppCDS archive, and
+ * the time until the indexes have loaded in the background. Each run starts a fresh process on
+ * the application's plain jar and runtime classpath, since CDS can't archive classes loaded from
+ * directories or nested jars.
+ *
+ * <p>
+ * The target is for the fast-start profile with the archive to serve its first request in at
+ * most {@link #TARGET_PERCENT_OF_DEFAULT}% of the default configuration's median time; each row
+ * reports its median as a percentage of the default's.
+ *
+ * <p>
+ * Run with {@code ./gradlew startupBenchmark}, which first trains the archive with
+ * {@code ./gradlew cdsArchive}. The archive needs Java 13 or later.
+ */
+public final class StartupBenchmark {
+
+  static final int TARGET_PERCENT_OF_DEFAULT = 50;
+
+  // served from the database until the indexes have loaded
+  private static final String FIRST_REQUEST = "/topTenHighestEarningEmployeeNames";
+
+  // answers service unavailable until the indexes have loaded
+  private static final String INDEXED_REQUEST = "/salaryStats";
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+  private static final List<String> FAST_START = List.of("--spring.profiles.active=fast-start");
+
+  private StartupBenchmark() {}
+
+  /**
+   * @param args "archive" to train the archive, otherwise "measure"
+   */
+  public static void main(String[] args) throws Exception {
+    String classpath = System.getProperty("startup.classpath");
+    Path archive = Paths.get(System.getProperty("startup.archive"));
+    if (args.length > 0 && "archive".equals(args[0])) {
+      Files.createDirectories(archive.getParent());
+      // the archive is written when the process exits, holding every class loaded up to then
+      startup(classpath, List.of("-XX:ArchiveClassesAtExit=" + archive), FAST_START);
+      System.out.printf("Wrote %s%n", archive);
+      return;
+    }
+
+    int runs = Integer.getInteger("startup.runs", 5);
+    System.out.printf("%-22s %10s %10s %12s %10s%n", "configuration", "median ms", "min ms",
+        "indexed ms", "% default");
+    long defaultMedian = measure("default", runs, classpath, List.of(), List.of(), 0);
+    measure("fast-start", runs, classpath, List.of(), FAST_START, defaultMedian);
+    if (Files.exists(archive)) {
+      long median = measure("fast-start + AppCDS", runs, classpath,
+          List.of("-XX:SharedArchiveFile=" + archive), FAST_START, defaultMedian);
+      System.out.printf("Target of %d%% of default: %s%n", TARGET_PERCENT_OF_DEFAULT,
+          median * 100 <= defaultMedian * TARGET_PERCENT_OF_DEFAULT ? "met" : "missed");
+    }
+  }
+
+  /**
+   * @return the median time to first request in milliseconds
+   */
+  private static long measure(String name, int runs, String classpath, List<String> jvmArgs,
+      List<String> appArgs, long defaultMedian) throws Exception {
+    List<Long> firstRequestMillis = new ArrayList<>(runs);
+    List<Long> indexedMillis = new ArrayList<>(runs);
+    for (int i = 0; i < runs; i++) {
+      Duration[] times = startup(classpath, jvmArgs, appArgs);
+      firstRequestMillis.add(times[0].toMillis());
+      indexedMillis.add(times[1].toMillis());
+    }
+    Collections.sort(firstRequestMillis);
+    Collections.sort(indexedMillis);
+    long median = firstRequestMillis.get(runs / 2);
+    long percent = defaultMedian == 0 ? 100 : Math.round(median * 100.0 / defaultMedian);
+    System.out.printf("%-22s %10d %10d %12d %10d%n", name, median, firstRequestMillis.get(0),
+        indexedMillis.get(runs / 2), percent);
+    return median;
+  }
+
+  /**
+   * Launches the application and polls until it answers a request and then until its indexes
+   * have loaded, then stops it.
+   *
+   * @return the time to the first request and the time until the indexes had loaded
+   */
+  private static Duration[] startup(String classpath, List<String> jvmArgs, List<String> appArgs)
+      throws Exception {
+    int port = freePort();
+    List<String> command = new ArrayList<>();
+    command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(jvmArgs);
+    command.addAll(Arrays.asList("-cp", classpath, RqChallengeApplication.class.getName(),
+        "--server.port=" + port, "--spring.main.banner-mode=off"));
+    command.addAll(appArgs);
+    HttpClient client = HttpClient.newHttpClient();
+
+    long start = System.nanoTime();
+    Process process = new ProcessBuilder(command).redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+    try {
+      Duration firstRequest = poll(client, process, port, FIRST_REQUEST, start);
+      Duration indexed = poll(client, process, port, INDEXED_REQUEST, start);
+      return new Duration[] {firstRequest, indexed};
+    } finally {
+      process.destroy();
+      process.waitFor();
+    }
+  }
+
+  private static Duration poll(HttpClient client, Process process, int port, String path,
+      long start) throws Exception {
+    HttpRequest request =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+    while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException("Application exited with " + process.exitValue());
+      }
+      try {
+        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500) {
+          return Duration.ofNanos(System.nanoTime() - start);
+        }
+      } catch (ConnectException e) {
+        // not listening yet
+      }
+      Thread.sleep(5);
+    }
+    throw new IllegalStateException("Application did not answer " + path + " within " + TIMEOUT);
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}
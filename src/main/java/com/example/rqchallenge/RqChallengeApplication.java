@@ -2,8 +2,10 @@ package com.example.rqchallenge;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+@SpringBootApplication(proxyBeanMethods = false)
+@EnableScheduling
 public class RqChallengeApplication {
 
   public static void main(String[] args) {
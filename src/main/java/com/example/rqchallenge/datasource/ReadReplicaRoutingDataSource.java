@@ -0,0 +1,53 @@
+package com.example.rqchallenge.datasource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replicas in turn and everything else to the primary. Reads
+ * pinned with {@link ReadRouting} go to the primary as well, which is how a client that has just
+ * written sees its own write despite replication lag.
+ *
+ * <p>
+ * The read-only flag is only set once a transaction has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  static final String PRIMARY = "primary";
+
+  private final List<String> replicaKeys = new ArrayList<>();
+
+  private final AtomicInteger nextReplica = new AtomicInteger();
+
+  /**
+   * @param primary the data source for writes
+   * @param replicas the data sources for reads; reads go to the primary if there are none
+   */
+  public ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    for (int i = 0; i < replicas.size(); i++) {
+      String key = "replica-" + i;
+      targets.put(key, replicas.get(i));
+      replicaKeys.add(key);
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicaKeys.isEmpty()
+        || ReadRouting.isPinnedToPrimary()) {
+      return PRIMARY;
+    }
+    return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+  }
+}
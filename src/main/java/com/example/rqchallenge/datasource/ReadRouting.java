@@ -0,0 +1,70 @@
+package com.example.rqchallenge.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Pins the reads of the current thread to the primary, for callers that must not see a lagging
+ * replica. Has no effect unless employees.datasource.routing.enabled is true.
+ */
+public final class ReadRouting {
+
+  private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY =
+      ThreadLocal.withInitial(() -> false);
+
+  private ReadRouting() {}
+
+  /**
+   * Runs the reads on the primary. A transaction must begin inside the supplier, since a
+   * connection is routed when the transaction's first statement runs.
+   *
+   * @param reads the reads to run
+   * @return the result of the reads
+   */
+  public static <T> T onPrimary(Supplier<T> reads) {
+    boolean pinned = pin();
+    try {
+      return reads.get();
+    } finally {
+      restore(pinned);
+    }
+  }
+
+  /**
+   * @param reads the reads to run on the primary
+   */
+  public static void runOnPrimary(Runnable reads) {
+    onPrimary(() -> {
+      reads.run();
+      return null;
+    });
+  }
+
+  /**
+   * @return whether the reads of the current thread go to the primary
+   */
+  public static boolean isPinnedToPrimary() {
+    return PINNED_TO_PRIMARY.get();
+  }
+
+  /**
+   * Pins the thread until {@link #restore(boolean)}, for reads that throw checked exceptions.
+   *
+   * @return whether the thread was already pinned, to pass to {@link #restore(boolean)}
+   */
+  public static boolean pin() {
+    boolean pinned = PINNED_TO_PRIMARY.get();
+    PINNED_TO_PRIMARY.set(true);
+    return pinned;
+  }
+
+  /**
+   * @param pinned what {@link #pin()} returned
+   */
+  public static void restore(boolean pinned) {
+    if (pinned) {
+      PINNED_TO_PRIMARY.set(true);
+    } else {
+      PINNED_TO_PRIMARY.remove();
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.example.rqchallenge.datasource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Gives each client that writes a token holding the time of its write, and pins that client's
+ * reads to the primary until the read-your-writes window has passed. Other clients keep reading
+ * from the replicas. Browsers return the token as a cookie; other clients can echo it back in a
+ * header instead.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+  static final String LAST_WRITE_COOKIE = "employees-last-write";
+
+  static final String LAST_WRITE_HEADER = "Employees-Last-Write";
+
+  private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+  private final long windowMillis;
+
+  /**
+   * @param readYourWritesWindow how long after a client's write its reads stay on the primary
+   */
+  public ReadYourWritesFilter(Duration readYourWritesWindow) {
+    this.windowMillis = readYourWritesWindow.toMillis();
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    long now = System.currentTimeMillis();
+    if (WRITE_METHODS.contains(request.getMethod())) {
+      // issued before the handler runs, while the response can still take headers; a write that
+      // fails only pins the client's reads for no reason
+      issueToken(response, now);
+    }
+    if (!wroteWithinWindow(request, now)) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    boolean pinned = ReadRouting.pin();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      ReadRouting.restore(pinned);
+    }
+  }
+
+  private void issueToken(HttpServletResponse response, long now) {
+    String token = Long.toString(now);
+    Cookie cookie = new Cookie(LAST_WRITE_COOKIE, token);
+    cookie.setPath("/");
+    cookie.setHttpOnly(true);
+    cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+    response.addCookie(cookie);
+    response.setHeader(LAST_WRITE_HEADER, token);
+  }
+
+  private boolean wroteWithinWindow(HttpServletRequest request, long now) {
+    String token = request.getHeader(LAST_WRITE_HEADER);
+    if (token == null) {
+      Cookie cookie = WebUtils.getCookie(request, LAST_WRITE_COOKIE);
+      token = cookie == null ? null : cookie.getValue();
+    }
+    if (token == null) {
+      return false;
+    }
+    try {
+      long elapsed = now - Long.parseLong(token);
+      // a token from the future is not trusted to pin reads indefinitely
+      return elapsed >= 0 && elapsed < windowMillis;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+}
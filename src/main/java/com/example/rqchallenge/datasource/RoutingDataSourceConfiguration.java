@@ -0,0 +1,66 @@
+package com.example.rqchallenge.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Replaces the single auto-configured data source with a primary and replica pools when
+ * employees.datasource.routing.enabled is true. Repository reads run in read-only transactions
+ * by default, so they go to the replicas without any changes to the callers; a client's reads
+ * stay on the primary for a while after it writes.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "employees.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class RoutingDataSourceConfiguration {
+
+  private final List<HikariDataSource> pools = new ArrayList<>();
+
+  @Bean
+  public DataSource dataSource(RoutingDataSourceProperties properties,
+      MeterRegistry meterRegistry) {
+    DataSource primary = createPool(properties.getPrimary(), "primary", meterRegistry);
+    List<DataSource> replicas = new ArrayList<>();
+    for (int i = 0; i < properties.getReplicas().size(); i++) {
+      replicas.add(createPool(properties.getReplicas().get(i), "replica-" + i, meterRegistry));
+    }
+    ReadReplicaRoutingDataSource routingDataSource =
+        new ReadReplicaRoutingDataSource(primary, replicas);
+    routingDataSource.afterPropertiesSet();
+    // defers choosing a route until the first statement, once the read-only flag is set
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+
+  @Bean
+  public ReadYourWritesFilter readYourWritesFilter(RoutingDataSourceProperties properties) {
+    return new ReadYourWritesFilter(properties.getRouting().getReadYourWritesWindow());
+  }
+
+  @PreDestroy
+  void close() {
+    pools.forEach(HikariDataSource::close);
+  }
+
+  private DataSource createPool(HikariConfig config, String poolName,
+      MeterRegistry meterRegistry) {
+    if (config.getPoolName() == null) {
+      config.setPoolName(poolName);
+    }
+    // the pools aren't beans, so the auto-configured pool metrics don't see them
+    config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    HikariDataSource pool = new HikariDataSource(config);
+    pools.add(pool);
+    return pool;
+  }
+}
@@ -0,0 +1,27 @@
+package com.example.rqchallenge.datasource;
+
+import java.util.Map;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Turns off open-in-view whenever reads are routed to replicas. The request-scoped session keeps
+ * the first connection it is given until the request ends, so a write following a read in the
+ * same request would otherwise run on the replica connection the read was routed to.
+ */
+public class RoutingDataSourceEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+  static final String PROPERTY_SOURCE_NAME = "readReplicaRouting";
+
+  @Override
+  public void postProcessEnvironment(ConfigurableEnvironment environment,
+      SpringApplication application) {
+    if (environment.getProperty("employees.datasource.routing.enabled", Boolean.class, false)) {
+      // first, so an explicit open-in-view=true can't break routing
+      environment.getPropertySources().addFirst(
+          new MapPropertySource(PROPERTY_SOURCE_NAME, Map.of("spring.jpa.open-in-view", "false")));
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.example.rqchallenge.datasource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import com.zaxxer.hikari.HikariConfig;
+import lombok.Data;
+
+/**
+ * The primary and replica connection pools, each configured with its own Hikari settings, e.g.
+ * employees.datasource.replicas[0].maximum-pool-size.
+ */
+@Data
+@ConfigurationProperties("employees.datasource")
+public class RoutingDataSourceProperties {
+
+  @Data
+  public static class Routing {
+    private boolean enabled;
+    /**
+     * How long after a client writes its reads stay on the primary. Should cover replication lag.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(1);
+  }
+
+  private Routing routing = new Routing();
+  private HikariConfig primary = new HikariConfig();
+  private List<HikariConfig> replicas = new ArrayList<>();
+}
@@ -1,13 +1,31 @@
 package com.example.rqchallenge.domain;
 
+import java.util.regex.Pattern;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 @Entity
 @Data
-public class Employee {
+public class Employee implements Persistable<String> {
 
+  private static final Pattern ID_PATTERN =
+      Pattern.compile("[0-9a-fA-F]{8}(-[0-9a-fA-F]{4}){3}-[0-9a-fA-F]{12}");
+
+  /**
+   * A UUID, stored in a native uuid column. It stays a String here so IDs pass through the API,
+   * caches and indexes unchanged; the database converts it when binding.
+   */
   @Id
   private String id;
   /**
@@ -16,5 +34,38 @@ public class Employee {
    */
   private String name;
   private Integer salary;
-  private String age;
+  private Integer age;
+
+  /**
+   * IDs are assigned before saving, so without this Spring Data would treat every new employee as
+   * existing and merge it, costing a select before each insert and preventing insert batching.
+   */
+  @Transient
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private boolean persisted;
+
+  @Override
+  @JsonIgnore
+  public boolean isNew() {
+    return !persisted;
+  }
+
+  /**
+   * IDs that can't be UUIDs can't match an employee, and would fail conversion in the database.
+   * 
+   * @param id an employee ID from a request
+   * @return true if the ID is a well-formed UUID
+   */
+  public static boolean isValidId(String id) {
+    return id != null && ID_PATTERN.matcher(id).matches();
+  }
+
+  @PostLoad
+  @PostPersist
+  void markPersisted() {
+    persisted = true;
+  }
 }
@@ -0,0 +1,27 @@
+package com.example.rqchallenge.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The outcome of a single item in a bulk create or delete request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeBulkResult {
+
+  public enum Status {
+    CREATED, DELETED, INVALID, NOT_FOUND, FAILED
+  }
+
+  /**
+   * The position of the item in the request.
+   */
+  private int index;
+  private String id;
+  private String name;
+  private Status status;
+  private String error;
+}
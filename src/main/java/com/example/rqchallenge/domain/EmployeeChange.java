@@ -0,0 +1,26 @@
+package com.example.rqchallenge.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A create or delete, numbered in the order it was committed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeChange {
+
+  public enum Type {
+    CREATED, DELETED
+  }
+
+  private long sequence;
+  private Type type;
+  private String id;
+  /**
+   * The created employee, or null for a delete.
+   */
+  private Employee employee;
+}
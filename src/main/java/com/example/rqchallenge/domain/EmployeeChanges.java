@@ -0,0 +1,27 @@
+package com.example.rqchallenge.domain;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeChanges {
+
+  /**
+   * Identifies the feed; sequence numbers from a different epoch don't apply.
+   */
+  private String epoch;
+  /**
+   * The sequence to pass as "since" for the next request.
+   */
+  private long next;
+  /**
+   * True if the requested changes are no longer retained, in which case the client must reload
+   * every employee and then resume from next.
+   */
+  private boolean resync;
+  private List<EmployeeChange> changes;
+}
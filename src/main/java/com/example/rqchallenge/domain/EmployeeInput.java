@@ -0,0 +1,52 @@
+package com.example.rqchallenge.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The attributes of an employee to be created. Problems found while reading the request are
+ * recorded rather than thrown, so the caller can reject the input with every problem at once.
+ */
+@Data
+@NoArgsConstructor
+@JsonDeserialize(using = EmployeeInputDeserializer.class)
+public class EmployeeInput {
+
+  private String name;
+  private Integer salary;
+  private Integer age;
+
+  @JsonIgnore
+  @Setter(AccessLevel.NONE)
+  private List<String> problems;
+
+  public EmployeeInput(String name, Integer salary, Integer age) {
+    this.name = name;
+    this.salary = salary;
+    this.age = age;
+  }
+
+  /**
+   * @param problem a description of an invalid or missing attribute
+   */
+  public void reject(String problem) {
+    if (problems == null) {
+      problems = new ArrayList<>(1);
+    }
+    problems.add(problem);
+  }
+
+  /**
+   * @return the invalid or missing attributes, empty if the input is valid
+   */
+  public List<String> getProblems() {
+    return problems == null ? Collections.emptyList() : problems;
+  }
+}
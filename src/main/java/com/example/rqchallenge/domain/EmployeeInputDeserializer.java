@@ -0,0 +1,106 @@
+package com.example.rqchallenge.domain;
+
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * Reads and validates employee attributes in a single pass over the tokens, without building an
+ * intermediate map. Numbers sent as strings are accepted for salary and age, as they were when
+ * the input was converted from a map.
+ */
+public class EmployeeInputDeserializer extends StdDeserializer<EmployeeInput> {
+
+  private static final long serialVersionUID = 4418815378201549817L;
+
+  static final int MAX_AGE = 150;
+
+  public EmployeeInputDeserializer() {
+    super(EmployeeInput.class);
+  }
+
+  @Override
+  public EmployeeInput deserialize(JsonParser parser, DeserializationContext context)
+      throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = parser.nextToken();
+    } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+      return (EmployeeInput) context.handleUnexpectedToken(EmployeeInput.class, parser);
+    }
+
+    EmployeeInput input = new EmployeeInput();
+    boolean hasName = false;
+    boolean hasSalary = false;
+    boolean hasAge = false;
+    for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      switch (field) {
+        case "name":
+          hasName = true;
+          if (value == JsonToken.VALUE_STRING && !parser.getText().isBlank()) {
+            input.setName(parser.getText());
+          } else {
+            input.reject("name must be a non-empty string");
+            parser.skipChildren();
+          }
+          break;
+        case "salary":
+          hasSalary = true;
+          Integer salary = readWholeNumber(parser, value);
+          if (salary != null && salary >= 0) {
+            input.setSalary(salary);
+          } else {
+            input.reject("salary must be a non-negative whole number");
+          }
+          break;
+        case "age":
+          hasAge = true;
+          Integer age = readWholeNumber(parser, value);
+          if (age != null && age >= 0 && age <= MAX_AGE) {
+            input.setAge(age);
+          } else {
+            input.reject(String.format("age must be a whole number from 0 to %d", MAX_AGE));
+          }
+          break;
+        case "id":
+          // IDs are always generated, so one sent by the client is ignored
+          parser.skipChildren();
+          break;
+        default:
+          input.reject(String.format("%s is not an employee attribute", field));
+          parser.skipChildren();
+      }
+    }
+
+    rejectIfMissing(input, hasName, "name");
+    rejectIfMissing(input, hasSalary, "salary");
+    rejectIfMissing(input, hasAge, "age");
+    return input;
+  }
+
+  private static Integer readWholeNumber(JsonParser parser, JsonToken value) throws IOException {
+    if (value == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == NumberType.INT) {
+      return parser.getIntValue();
+    }
+    if (value == JsonToken.VALUE_STRING) {
+      try {
+        return Integer.valueOf(parser.getText().trim());
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+    parser.skipChildren();
+    return null;
+  }
+
+  private static void rejectIfMissing(EmployeeInput input, boolean present, String field) {
+    if (!present) {
+      input.reject(String.format("%s is required", field));
+    }
+  }
+}
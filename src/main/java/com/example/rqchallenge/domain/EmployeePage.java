@@ -0,0 +1,18 @@
+package com.example.rqchallenge.domain;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeePage {
+
+  private List<Employee> employees;
+  /**
+   * The ID to pass as the "after" cursor to fetch the next page, or null on the last page.
+   */
+  private String nextCursor;
+}
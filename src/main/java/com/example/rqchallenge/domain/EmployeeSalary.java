@@ -0,0 +1,12 @@
+package com.example.rqchallenge.domain;
+
+/**
+ * A projection of an employee's name and salary. Queries returning it select only those columns,
+ * and the rows are never loaded into the persistence context as entities.
+ */
+public interface EmployeeSalary {
+
+  String getName();
+
+  Integer getSalary();
+}
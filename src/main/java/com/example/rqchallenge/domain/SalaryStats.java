@@ -0,0 +1,43 @@
+package com.example.rqchallenge.domain;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Salary statistics over every employee with a salary. Percentiles are approximate, within 1% of
+ * the exact value; everything else is exact.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalaryStats {
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Bucket {
+    /**
+     * The inclusive lower bound, or null for the lowest bucket.
+     */
+    private Integer from;
+    /**
+     * The exclusive upper bound, or null for the highest bucket.
+     */
+    private Integer to;
+    private long count;
+  }
+
+  private long count;
+  private long sum;
+  private Integer min;
+  private Integer max;
+  private Double average;
+  /**
+   * Keyed by percentile, e.g. "p99".
+   */
+  private Map<String, Integer> percentiles;
+  private List<Bucket> buckets;
+}
@@ -0,0 +1,23 @@
+package com.example.rqchallenge.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Exact salary aggregates over the employees matching an analytics filter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalarySummary {
+
+  /**
+   * The number of matching employees, including any without a salary.
+   */
+  private long count;
+  private long sum;
+  private Integer min;
+  private Integer max;
+  private Double average;
+}
@@ -0,0 +1,14 @@
+package com.example.rqchallenge.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopEarner implements EmployeeSalary {
+
+  private String name;
+  private Integer salary;
+}
@@ -0,0 +1,134 @@
+package com.example.rqchallenge.employees;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import com.example.rqchallenge.domain.Employee;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes a list of employees as one JSON array per attribute, e.g.
+ * {"id":["a","b"],"name":["A","B"],"salary":[1,2],"age":[30,40]}, so the keys appear once rather
+ * than on every row. Clients ask for it with an Accept of {@link #COLUMNAR_JSON}. Registered by
+ * {@link EmployeeWebConfiguration} after the JSON converter, so it is never chosen for a wildcard
+ * Accept.
+ */
+public class EmployeeColumnarHttpMessageConverter
+    extends AbstractGenericHttpMessageConverter<List<Employee>> {
+
+  public static final MediaType COLUMNAR_JSON =
+      MediaType.parseMediaType("application/vnd.employees.columnar+json");
+
+  // only strings and numbers are written, so no object mapper is needed
+  private static final JsonFactory JSON_FACTORY =
+      JsonFactory.builder().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).build();
+
+  public EmployeeColumnarHttpMessageConverter() {
+    super(COLUMNAR_JSON);
+  }
+
+  @Override
+  public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected boolean canRead(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+    return isEmployeeList(type) && canWrite(mediaType);
+  }
+
+  @Override
+  public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+    // what content negotiation offers for a return type, which is only known by its raw class
+    return List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes()
+        : Collections.emptyList();
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    // the element type is only known from the generic type, so plain class checks don't match
+    return false;
+  }
+
+  @Override
+  public List<Employee> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("Columnar employees are write-only.", inputMessage);
+  }
+
+  @Override
+  protected List<Employee> readInternal(Class<? extends List<Employee>> clazz,
+      HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("Columnar employees are write-only.", inputMessage);
+  }
+
+  @Override
+  protected void writeInternal(List<Employee> employees, Type type,
+      HttpOutputMessage outputMessage) throws IOException {
+    write(employees, outputMessage.getBody());
+  }
+
+  /**
+   * @param employees the employees to write
+   * @param outputStream where to write them, left open
+   */
+  public void write(List<Employee> employees, OutputStream outputStream) throws IOException {
+    try (JsonGenerator generator =
+        JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8)) {
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("id");
+      for (Employee employee : employees) {
+        generator.writeString(employee.getId());
+      }
+      generator.writeEndArray();
+      generator.writeArrayFieldStart("name");
+      for (Employee employee : employees) {
+        generator.writeString(employee.getName());
+      }
+      generator.writeEndArray();
+      generator.writeArrayFieldStart("salary");
+      for (Employee employee : employees) {
+        writeNumber(generator, employee.getSalary());
+      }
+      generator.writeEndArray();
+      generator.writeArrayFieldStart("age");
+      for (Employee employee : employees) {
+        writeNumber(generator, employee.getAge());
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+  }
+
+  private static void writeNumber(JsonGenerator generator, Integer value) throws IOException {
+    if (value == null) {
+      generator.writeNull();
+    } else {
+      generator.writeNumber(value);
+    }
+  }
+
+  private static boolean isEmployeeList(Type type) {
+    if (!(type instanceof ParameterizedType)) {
+      return false;
+    }
+    ParameterizedType parameterized = (ParameterizedType) type;
+    return parameterized.getRawType() instanceof Class
+        && List.class.isAssignableFrom((Class<?>) parameterized.getRawType())
+        && parameterized.getActualTypeArguments()[0] == Employee.class;
+  }
+}
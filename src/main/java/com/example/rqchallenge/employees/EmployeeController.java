@@ -1,17 +1,23 @@
 package com.example.rqchallenge.employees;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.EmployeeBulkResult;
+import com.example.rqchallenge.domain.EmployeeInput;
+import com.example.rqchallenge.domain.EmployeePage;
+import com.example.rqchallenge.domain.SalaryStats;
 import com.example.rqchallenge.employees.exceptions.EmployeeNotFoundException;
 import com.example.rqchallenge.employees.exceptions.EmployeeValidationException;
-import lombok.extern.log4j.Log4j2;
+import lombok.extern.slf4j.Slf4j;
 
 @RestController
-@Log4j2
+@Slf4j
 public class EmployeeController implements IEmployeeController {
 
   @Autowired
@@ -19,45 +25,79 @@ public class EmployeeController implements IEmployeeController {
 
   @Override
   public ResponseEntity<List<Employee>> getAllEmployees() {
-    log.info("Retrieving all employees");
+    log.debug("Retrieving all employees");
     return employeeHandler.getAllEmployees();
   }
 
   @Override
-  public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString) {
-    log.info("Retrieving employees with name containing: {}", searchString);
-    return employeeHandler.getEmployeesByNameSearch(searchString);
+  public ResponseEntity<EmployeePage> getEmployeePage(String after, int limit)
+      throws EmployeeValidationException {
+    log.debug("Retrieving {} employees after: {}", limit, after);
+    return employeeHandler.getEmployeePage(after, limit);
+  }
+
+  @Override
+  public ResponseEntity<StreamingResponseBody> streamAllEmployees() {
+    log.debug("Streaming all employees");
+    return employeeHandler.streamAllEmployees();
+  }
+
+  @Override
+  public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString,
+      Integer limit) throws EmployeeValidationException {
+    log.debug("Retrieving employees with name containing: {}", searchString);
+    return employeeHandler.getEmployeesByNameSearch(searchString, limit);
   }
 
   @Override
   public ResponseEntity<Employee> getEmployeeById(String id) throws EmployeeNotFoundException {
-    log.info("Retrieving employee with ID: {}", id);
+    log.debug("Retrieving employee with ID: {}", id);
     return employeeHandler.getEmployeeById(id);
   }
 
   @Override
   public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
-    log.info("Retrieving highest salary.");
+    log.debug("Retrieving highest salary.");
     return employeeHandler.getHighestSalaryOfEmployees();
   }
 
+  @Override
+  public ResponseEntity<SalaryStats> getSalaryStats() {
+    log.debug("Retrieving salary statistics.");
+    return employeeHandler.getSalaryStats();
+  }
+
   @Override
   public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
-    log.info("Retrieving names of top ten highest earning employees.");
+    log.debug("Retrieving names of top ten highest earning employees.");
     return employeeHandler.getTopTenHighestEarningEmployeeNames();
   }
 
 
   @Override
-  public ResponseEntity<Employee> createEmployee(Map<String, Object> employeeInput)
+  public ResponseEntity<Employee> createEmployee(EmployeeInput employeeInput)
       throws EmployeeValidationException {
-    log.info("Creating employee with attributes: {}", employeeInput);
+    log.debug("Creating employee");
     return employeeHandler.createEmployee(employeeInput);
   }
 
+  @Override
+  public ResponseEntity<List<EmployeeBulkResult>> createEmployees(InputStream employeeInputs)
+      throws EmployeeValidationException, IOException {
+    log.debug("Creating employees in bulk");
+    return employeeHandler.createEmployees(employeeInputs);
+  }
+
   @Override
   public ResponseEntity<String> deleteEmployeeById(String id) throws EmployeeNotFoundException {
-    log.info("Deleting employe with ID: {}", id);
+    log.debug("Deleting employe with ID: {}", id);
     return employeeHandler.deleteEmployeeById(id);
   }
+
+  @Override
+  public ResponseEntity<List<EmployeeBulkResult>> deleteEmployeesById(InputStream ids)
+      throws EmployeeValidationException, IOException {
+    log.debug("Deleting employees in bulk");
+    return employeeHandler.deleteEmployeesById(ids);
+  }
 }
@@ -0,0 +1,65 @@
+package com.example.rqchallenge.employees;
+
+import java.util.Map;
+import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import com.example.rqchallenge.employees.index.EmployeeVersions;
+
+/**
+ * Answers conditional GETs on the employee API before the handler runs. Reads of a single
+ * employee are tagged with its version, every other read with the table version. A request whose
+ * If-None-Match matches gets a 304 without querying or serializing anything. When reads are
+ * routed to replicas only single employees are tagged, since they come from the employee cache,
+ * which loads from the primary; any other read may come from a replica older than the table tag.
+ */
+@Component
+public class EmployeeETagInterceptor implements HandlerInterceptor {
+
+  @Autowired
+  private EmployeeVersions employeeVersions;
+
+  @Value("${employees.datasource.routing.enabled:false}")
+  private boolean routingEnabled;
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    if (!HttpMethod.GET.matches(request.getMethod()) || !(handler instanceof HandlerMethod)
+        || !IEmployeeController.class.isAssignableFrom(((HandlerMethod) handler).getBeanType())) {
+      return true;
+    }
+    // the version is read before the handler runs, so the body is never older than its tag
+    Optional<String> tag = getTag(request);
+    if (tag.isEmpty()) {
+      return true;
+    }
+    // every encoding of a read shares its tag, so caches must keep the encodings apart
+    if (!response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+      response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+    // weak, since the encodings share it and the container won't compress a strongly tagged body
+    return !new ServletWebRequest(request, response)
+        .checkNotModified(String.format("W/\"%s\"", tag.get()));
+  }
+
+  private Optional<String> getTag(HttpServletRequest request) {
+    @SuppressWarnings("unchecked")
+    Map<String, String> variables = (Map<String, String>) request
+        .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    if (variables != null && variables.containsKey("id")) {
+      // an unknown ID is left to the handler to reject
+      return employeeVersions.getTag(variables.get("id"));
+    }
+    return routingEnabled ? Optional.empty() : Optional.of(employeeVersions.getTableTag());
+  }
+}
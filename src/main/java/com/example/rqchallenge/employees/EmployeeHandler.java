@@ -1,43 +1,213 @@
 package com.example.rqchallenge.employees;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.EmployeeBulkResult;
+import com.example.rqchallenge.domain.EmployeeBulkResult.Status;
+import com.example.rqchallenge.domain.EmployeeInput;
+import com.example.rqchallenge.domain.EmployeePage;
+import com.example.rqchallenge.domain.SalaryStats;
+import com.example.rqchallenge.employees.cache.EmployeeCache;
+import com.example.rqchallenge.employees.coalescing.SingleFlight;
 import com.example.rqchallenge.employees.exceptions.EmployeeNotFoundException;
 import com.example.rqchallenge.employees.exceptions.EmployeeValidationException;
+import com.example.rqchallenge.employees.index.EmployeeIndexes;
+import com.example.rqchallenge.employees.index.NameSearchIndex;
+import com.example.rqchallenge.employees.index.SalaryIndex;
+import com.example.rqchallenge.employees.store.EmployeeStore;
+import com.example.rqchallenge.logging.PayloadLogSampler;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
 @Slf4j
 public class EmployeeHandler {
 
+  static final int MAX_PAGE_SIZE = 1000;
+
+  static final int DEFAULT_SEARCH_LIMIT = 100;
+
+
   @Autowired
   private EmployeeRepository employeeRepository;
 
-  private ObjectMapper objectMapper = new ObjectMapper();
+  @Autowired
+  private EmployeePersistenceContext persistenceContext;
+
+  @Autowired
+  private EmployeeStore employeeStore;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private EmployeeIndexes employeeIndexes;
+
+  @Autowired
+  private EmployeeCache employeeCache;
+
+  @Autowired
+  private SalaryIndex salaryIndex;
+
+  @Autowired
+  private NameSearchIndex nameSearchIndex;
+
+  @Autowired
+  private PayloadLogSampler payloadLogSampler;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${employees.bulk.max-size:50000}")
+  private int bulkMaxSize;
+
+  @Value("${employees.bulk.batch-size:500}")
+  private int bulkBatchSize;
+
+  private TransactionTemplate readOnlyTransaction;
+
+  // concurrent identical reads share one query, so a spike on a hot key costs a single query
+  private SingleFlight<List<Object>, List<Employee>> searches;
+
+  private SingleFlight<Void, Optional<Integer>> highestSalaries;
+
+  private SingleFlight<Void, List<String>> topTenNames;
+
+  @PostConstruct
+  void init() {
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+    searches = new SingleFlight<>("search", meterRegistry);
+    highestSalaries = new SingleFlight<>("highestSalary", meterRegistry);
+    topTenNames = new SingleFlight<>("topTenNames", meterRegistry);
+  }
 
   /**
    * @return all employees
    */
   public ResponseEntity<List<Employee>> getAllEmployees() {
-    List<Employee> employees = employeeRepository.findAll();
-    log.info("Found {} total employees.", employees.size());
+    List<Employee> employees = employeeStore.findAll();
+    log.debug("Found {} total employees.", employees.size());
     return ResponseEntity.ok(employees);
   }
 
+  /**
+   * @param after the ID of the last employee on the previous page, or null for the first page
+   * @param limit the maximum number of employees to return
+   * @return up to limit employees ordered by ID, with the cursor for the next page
+   * @throws EmployeeValidationException if the limit is out of range or the cursor is malformed
+   */
+  public ResponseEntity<EmployeePage> getEmployeePage(String after, int limit)
+      throws EmployeeValidationException {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new EmployeeValidationException(
+          String.format("Page limit must be between 1 and %d.", MAX_PAGE_SIZE));
+    }
+    if (after != null && !Employee.isValidId(after)) {
+      throw new EmployeeValidationException("Page cursor must be an employee ID.");
+    }
+    Pageable pageable = PageRequest.of(0, limit);
+    List<Employee> employees = after == null ? employeeRepository.findFirstPage(pageable)
+        : employeeRepository.findPageAfter(after, pageable);
+    // a full page means there may be more rows; the client stops on a page without a cursor
+    String nextCursor = employees.size() == limit ? employees.get(limit - 1).getId() : null;
+    log.debug("Found {} employees after cursor {}.", employees.size(), after);
+    return ResponseEntity.ok(new EmployeePage(employees, nextCursor));
+  }
+
+  /**
+   * Writes every employee as newline-delimited JSON straight from a database cursor. Each row is
+   * detached as soon as it is written, so memory use does not grow with the size of the table.
+   * 
+   * @return a body that streams all employees, one JSON object per line
+   */
+  public ResponseEntity<StreamingResponseBody> streamAllEmployees() {
+    ObjectWriter writer = objectMapper.writerFor(Employee.class)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    StreamingResponseBody body =
+        outputStream -> readOnlyTransaction.executeWithoutResult(status -> {
+          try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.setRootValueSeparator(null);
+            long count = 0;
+            for (Employee employee : (Iterable<Employee>) employees::iterator) {
+              writer.writeValue(generator, employee);
+              generator.writeRaw('\n');
+              persistenceContext.detach(employee);
+              count++;
+            }
+            generator.flush();
+            log.debug("Streamed {} employees.", count);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
   /**
    * @param searchString the employee name search input (case-insensitive)
-   * @return all employees whose name contains or matches the string input provided
+   * @param limit the maximum number of employees to return, or null for the default
+   * @return the most relevant employees whose name contains or matches the string input provided,
+   *         or service unavailable while the indexes are rebuilt
+   * @throws EmployeeValidationException if the limit is out of range
    */
-  public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString) {
-    List<Employee> employees = employeeRepository.findByNameContainsIgnoreCase(searchString);
-    log.info("Found {} employees containing name: {}", employees.size(), searchString);
+  public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString,
+      Integer limit) throws EmployeeValidationException {
+    int maxResults = limit == null ? DEFAULT_SEARCH_LIMIT : limit;
+    if (maxResults < 1 || maxResults > MAX_PAGE_SIZE) {
+      throw new EmployeeValidationException(
+          String.format("Search limit must be between 1 and %d.", MAX_PAGE_SIZE));
+    }
+    // a partly loaded index would silently miss matches, and ranking needs the index
+    if (employeeIndexes.isRebuilding()) {
+      return unavailable();
+    }
+    // the index lowercases the search string, so searches differing only in case are identical
+    List<Object> key = List.of(searchString.toLowerCase(Locale.ROOT), maxResults);
+    List<Employee> employees = searches.execute(key,
+        () -> findEmployeesInOrder(nameSearchIndex.search(searchString, maxResults)));
+    log.debug("Found {} employees containing name: {}", employees.size(), searchString);
     return ResponseEntity.ok(employees);
   }
 
@@ -48,28 +218,46 @@ public class EmployeeHandler {
    */
   public ResponseEntity<Employee> getEmployeeById(String id) throws EmployeeNotFoundException {
     Employee employee = findEmployeeById(id);
-    log.info("Found employee {} with ID {}.", employee.getName(), id);
+    log.debug("Found employee with ID {}.", id);
     return ResponseEntity.ok(employee);
   }
 
   /**
-   * @return the highest salary of all employees
+   * @return the highest salary of all employees, or no content if there are no employees
    */
   public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
-    Employee employee = employeeRepository.findFirstByOrderBySalaryDesc();
-    Integer salary = employee.getSalary();
-    log.info("Found highest earning salary {} from employee {}", salary, employee.getId());
-    return ResponseEntity.ok(salary);
+    // the index is incomplete while it is rebuilt, so the database answers in the meantime
+    Optional<Integer> salary = employeeIndexes.isRebuilding()
+        ? highestSalaries.execute(employeeRepository::findHighestSalary)
+        : salaryIndex.getHighestSalary();
+    log.debug("Found highest earning salary {}", salary.orElse(null));
+    return salary.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.noContent().build());
+  }
+
+  /**
+   * @return salary statistics maintained as employees are created and deleted, or service
+   *         unavailable while the indexes are rebuilt
+   */
+  public ResponseEntity<SalaryStats> getSalaryStats() {
+    if (employeeIndexes.isRebuilding()) {
+      return unavailable();
+    }
+    SalaryStats stats = salaryIndex.getStats();
+    log.debug("Found salary statistics over {} employees", stats.getCount());
+    return ResponseEntity.ok(stats);
   }
 
   /**
    * @return the names of the top 10 highest earning employees
    */
   public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
-    List<Employee> employees = employeeRepository.findFirst10ByOrderBySalaryDesc();
-    List<String> employeeNames =
-        employees.stream().map(Employee::getName).collect(Collectors.toList());
-    log.info("Found 10 highest earning employees: {}", employeeNames);
+    List<String> employeeNames = employeeIndexes.isRebuilding()
+        ? topTenNames.execute(
+            () -> employeeRepository.findNamesOrderBySalaryDesc(PageRequest.of(0, 10)))
+        : salaryIndex.getTopNames(10);
+    if (payloadLogSampler.sample(log)) {
+      log.debug("Found 10 highest earning employees: {}", employeeNames);
+    }
     return ResponseEntity.ok(employeeNames);
   }
 
@@ -80,25 +268,61 @@ public class EmployeeHandler {
    * @return the created employee description
    * @throws EmployeeValidationException
    */
-  public ResponseEntity<Employee> createEmployee(Map<String, Object> employeeInput)
+  public ResponseEntity<Employee> createEmployee(EmployeeInput employeeInput)
       throws EmployeeValidationException {
     // The params in the README prompt are different from the provided interface, so I went with
     // this implementation because it's cleaner. This method could be used with a wrapper if we did
     // need an endpoint with individual params and a success/failure string response.
-    try {
-      Employee employee = objectMapper.convertValue(employeeInput, Employee.class);
-      String id = UUID.randomUUID().toString();
-      employee.setId(id);
-      employeeRepository.save(employee);
-      log.info("Created employee: {}", employee);
-      return ResponseEntity.ok(employee);
-    } catch (IllegalArgumentException e) {
-      String errorMsg =
-          String.format("Cannot create employee with invalid input: %s", employeeInput.toString());
-      log.info(errorMsg);
-      throw new EmployeeValidationException(errorMsg);
+    Employee employee = toEmployee(employeeInput);
+    employeeStore.save(employee);
+    onCreated(employee);
+    log.info("Created employee {}.", employee.getId());
+    if (payloadLogSampler.sample(log)) {
+      log.debug("Created employee: {}", employee);
     }
+    return ResponseEntity.ok(employee);
+  }
 
+  /**
+   * Creates employees from a JSON array or newline-delimited JSON of employee attributes. Every
+   * item is validated before anything is written, then the valid ones are inserted in batches.
+   * 
+   * @param employeeInputs the request body containing the employee attributes
+   * @return the result for each item, in request order
+   * @throws EmployeeValidationException if the body is malformed or has too many items
+   * @throws IOException if the body can't be read
+   */
+  public ResponseEntity<List<EmployeeBulkResult>> createEmployees(InputStream employeeInputs)
+      throws EmployeeValidationException, IOException {
+    List<EmployeeInput> inputs =
+        readBulkRequest(objectMapper.readerFor(EmployeeInput.class), employeeInputs);
+    List<EmployeeBulkResult> results = new ArrayList<>(inputs.size());
+    Map<String, EmployeeBulkResult> resultsById = new HashMap<>();
+    List<Employee> employees = new ArrayList<>(inputs.size());
+    for (int i = 0; i < inputs.size(); i++) {
+      try {
+        Employee employee = toEmployee(inputs.get(i));
+        EmployeeBulkResult result =
+            new EmployeeBulkResult(i, employee.getId(), employee.getName(), Status.CREATED, null);
+        employees.add(employee);
+        results.add(result);
+        resultsById.put(employee.getId(), result);
+      } catch (EmployeeValidationException e) {
+        results.add(new EmployeeBulkResult(i, null, null, Status.INVALID, e.getMessage()));
+      }
+    }
+
+    for (List<Employee> batch : Lists.partition(employees, bulkBatchSize)) {
+      try {
+        employeeStore.saveAll(batch);
+        batch.forEach(this::onCreated);
+      } catch (DataAccessException | TransactionException e) {
+        log.warn("Failed to create a batch of {} employees.", batch.size(), e);
+        batch.forEach(employee -> markFailed(resultsById.get(employee.getId()), e));
+      }
+    }
+    log.info("Created {} of {} employees.", employees.size(), inputs.size());
+    return ResponseEntity.ok(results);
   }
 
   /**
@@ -111,13 +335,150 @@ public class EmployeeHandler {
   public ResponseEntity<String> deleteEmployeeById(String id) throws EmployeeNotFoundException {
     // retrieve the employee to confirm the entry exists and get its name
     Employee employee = findEmployeeById(id);
-    employeeRepository.deleteById(id);
-    log.info("Deleted employee {}: {}", id, employee);
+    if (!employeeStore.delete(id)) {
+      // deleted by a concurrent request after it was cached
+      forget(employee);
+      throw new EmployeeNotFoundException(id);
+    }
+    forget(employee);
+    log.info("Deleted employee {}.", id);
+    if (payloadLogSampler.sample(log)) {
+      log.debug("Deleted employee: {}", employee);
+    }
     return ResponseEntity.ok(employee.getName());
   }
 
+  /**
+   * Permanently removes the employees with the IDs in a JSON array or newline-delimited JSON of ID
+   * strings. Each batch is looked up and deleted with one query apiece.
+   * 
+   * @param ids the request body containing the IDs of the employees to be deleted
+   * @return the result for each ID, including the deleted employee's name, in request order
+   * @throws EmployeeValidationException if the body is malformed or has too many items
+   * @throws IOException if the body can't be read
+   */
+  public ResponseEntity<List<EmployeeBulkResult>> deleteEmployeesById(InputStream ids)
+      throws EmployeeValidationException, IOException {
+    List<String> requestedIds = readBulkRequest(objectMapper.readerFor(String.class), ids);
+    List<EmployeeBulkResult> results = new ArrayList<>(requestedIds.size());
+    List<EmployeeBulkResult> deletions = new ArrayList<>(requestedIds.size());
+    for (int i = 0; i < requestedIds.size(); i++) {
+      String id = requestedIds.get(i);
+      if (id == null || id.isBlank()) {
+        results.add(new EmployeeBulkResult(i, id, null, Status.INVALID, "Missing employee ID."));
+      } else if (!Employee.isValidId(id)) {
+        results.add(new EmployeeBulkResult(i, id, null, Status.NOT_FOUND, null));
+      } else {
+        EmployeeBulkResult result = new EmployeeBulkResult(i, id, null, Status.NOT_FOUND, null);
+        results.add(result);
+        deletions.add(result);
+      }
+    }
+
+    int deleted = 0;
+    for (List<EmployeeBulkResult> batch : Lists.partition(deletions, bulkBatchSize)) {
+      Set<String> batchIds = batch.stream().map(EmployeeBulkResult::getId)
+          .collect(Collectors.toCollection(HashSet::new));
+      try {
+        Map<String, Employee> deletedById = employeeStore.deleteAll(batchIds).stream()
+            .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        for (EmployeeBulkResult result : batch) {
+          // removed from the map so an ID repeated in the request is only reported deleted once
+          Employee employee = deletedById.remove(result.getId());
+          if (employee != null) {
+            result.setName(employee.getName());
+            result.setStatus(Status.DELETED);
+            forget(employee);
+            deleted++;
+          }
+        }
+      } catch (DataAccessException | TransactionException e) {
+        log.warn("Failed to delete a batch of {} employees.", batch.size(), e);
+        batch.forEach(result -> markFailed(result, e));
+      }
+    }
+    log.info("Deleted {} of {} employees.", deleted, requestedIds.size());
+    return ResponseEntity.ok(results);
+  }
+
+  private Employee toEmployee(EmployeeInput employeeInput) throws EmployeeValidationException {
+    if (!employeeInput.getProblems().isEmpty()) {
+      String errorMsg = "Cannot create employee with invalid input: "
+          + String.join(", ", employeeInput.getProblems());
+      log.debug(errorMsg);
+      throw new EmployeeValidationException(errorMsg);
+    }
+    Employee employee = new Employee();
+    employee.setId(UUID.randomUUID().toString());
+    employee.setName(employeeInput.getName());
+    employee.setSalary(employeeInput.getSalary());
+    employee.setAge(employeeInput.getAge());
+    return employee;
+  }
+
+  private <T> List<T> readBulkRequest(ObjectReader reader, InputStream requestBody)
+      throws EmployeeValidationException, IOException {
+    List<T> items = new ArrayList<>();
+    // a root-level array is unwrapped, otherwise the values are read as a whitespace-separated
+    // sequence, which covers newline-delimited JSON
+    try (MappingIterator<T> iterator = reader.readValues(requestBody)) {
+      while (iterator.hasNextValue()) {
+        if (items.size() == bulkMaxSize) {
+          throw new EmployeeValidationException(
+              String.format("Bulk requests are limited to %d items.", bulkMaxSize));
+        }
+        items.add(iterator.nextValue());
+      }
+    } catch (JsonProcessingException e) {
+      throw new EmployeeValidationException(
+          String.format("Cannot read bulk request: %s", e.getOriginalMessage()));
+    }
+    return items;
+  }
+
+  private static <T> ResponseEntity<T> unavailable() {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1").build();
+  }
+
+  private void markFailed(EmployeeBulkResult result, Exception cause) {
+    result.setStatus(Status.FAILED);
+    result.setError(cause.getMessage());
+  }
+
+  private void onCreated(Employee employee) {
+    employeeIndexes.add(employee);
+    employeeCache.put(employee);
+  }
+
+  private void forget(Employee employee) {
+    employeeIndexes.remove(employee);
+    employeeCache.invalidate(employee.getId());
+  }
+
+  /**
+   * Loads the employees in a single query, returned in the order of the provided IDs. IDs deleted
+   * since they were looked up are skipped.
+   */
+  private List<Employee> findEmployeesInOrder(List<String> ids) {
+    Map<String, Employee> employeesById = employeeStore.findAllById(ids).stream()
+        .collect(Collectors.toMap(Employee::getId, Function.identity()));
+    List<Employee> employees = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      Employee employee = employeesById.get(id);
+      if (employee != null) {
+        employees.add(employee);
+      }
+    }
+    return employees;
+  }
+
   private Employee findEmployeeById(String id) throws EmployeeNotFoundException {
-    return employeeRepository.findById(id).orElseThrow(() -> new EmployeeNotFoundException(id));
+    if (!Employee.isValidId(id)) {
+      throw new EmployeeNotFoundException(id);
+    }
+    // the cache's loader already gives concurrent misses for the same ID a single query
+    return employeeCache.get(id).orElseThrow(() -> new EmployeeNotFoundException(id));
   }
 
 }
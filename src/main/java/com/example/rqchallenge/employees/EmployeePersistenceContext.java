@@ -0,0 +1,21 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.domain.Employee;
+
+/**
+ * Releases employees from the persistence context, so reading or writing the whole table doesn't
+ * hold every employee in memory until the transaction ends. A no-op where employees aren't
+ * managed by JPA.
+ */
+public interface EmployeePersistenceContext {
+
+  /**
+   * @param employee an employee that is no longer needed
+   */
+  void detach(Employee employee);
+
+  /**
+   * Detaches every employee, discarding changes that haven't been flushed.
+   */
+  void detachAll();
+}
@@ -1,8 +1,20 @@
 package com.example.rqchallenge.employees;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.EmployeeSalary;
 
 public interface EmployeeRepository extends JpaRepository<Employee, String> {
 
@@ -13,12 +25,64 @@ public interface EmployeeRepository extends JpaRepository<Employee, String> {
   public List<Employee> findByNameContainsIgnoreCase(String searchString);
 
   /**
-   * @return the employee with the highest salary
+   * @return the highest salary, or empty if there are no employees with a salary
    */
-  public Employee findFirstByOrderBySalaryDesc();
+  @Transactional(readOnly = true)
+  @Query("select max(e.salary) from Employee e")
+  public Optional<Integer> findHighestSalary();
 
   /**
-   * @return the top 10 highest earning employees
+   * @param pageable the number of names (the sort is always descending salary)
+   * @return the names of the highest earning employees, highest salary first
    */
-  public List<Employee> findFirst10ByOrderBySalaryDesc();
+  @Transactional(readOnly = true)
+  @Query("select e.name from Employee e order by e.salary desc")
+  public List<String> findNamesOrderBySalaryDesc(Pageable pageable);
+
+  /**
+   * @return the names and salaries of the top 10 highest earning employees
+   */
+  @Transactional(readOnly = true)
+  public List<EmployeeSalary> findFirst10ByOrderBySalaryDesc();
+
+  /**
+   * @param pageable the page size (the sort is always ascending ID)
+   * @return the first page of employees ordered by ID
+   */
+  @Query("select e from Employee e order by e.id")
+  public List<Employee> findFirstPage(Pageable pageable);
+
+  /**
+   * Keyset pagination: seeks past the cursor on the primary key instead of using an offset, so
+   * every page costs the same no matter how deep into the table it is.
+   *
+   * @param after the ID of the last employee on the previous page
+   * @param pageable the page size (the sort is always ascending ID)
+   * @return the page of employees ordered by ID whose ID sorts after the provided cursor
+   */
+  @Query("select e from Employee e where e.id > :after order by e.id")
+  public List<Employee> findPageAfter(@Param("after") String after, Pageable pageable);
+
+  /**
+   * Must be consumed inside a transaction and closed afterwards. Callers are responsible for
+   * detaching each employee once written, otherwise the persistence context grows with the table.
+   *
+   * @return a cursor over all employees
+   */
+  @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HINT_READONLY, value = "true")})
+  @Query("select e from Employee e")
+  public Stream<Employee> streamAll();
+
+  /**
+   * Deletes with a single statement, unlike {@link #deleteById(Object)} which loads the entity
+   * before removing it.
+   *
+   * @param id the ID of the employee to delete
+   * @return the number of deleted employees
+   */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("delete from Employee e where e.id = :id")
+  public int removeById(@Param("id") String id);
 }
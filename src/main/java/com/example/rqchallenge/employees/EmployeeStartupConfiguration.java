@@ -0,0 +1,23 @@
+package com.example.rqchallenge.employees;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import com.example.rqchallenge.employees.index.EmployeeIndexes;
+import com.example.rqchallenge.employees.store.EmployeeStore;
+
+@Configuration(proxyBeanMethods = false)
+public class EmployeeStartupConfiguration {
+
+  /**
+   * With spring.main.lazy-initialization, keeps the store eager, since a write-behind journal must
+   * be replayed at startup. {@link EmployeeIndexes} is left lazy; the fast-start profile also
+   * loads it in the background once the application is ready.
+   *
+   * @return a filter excluding the store from lazy initialization
+   */
+  @Bean
+  static LazyInitializationExcludeFilter eagerEmployeeBeans() {
+    return LazyInitializationExcludeFilter.forBeanTypes(EmployeeStore.class);
+  }
+}
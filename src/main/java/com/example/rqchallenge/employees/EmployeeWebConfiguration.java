@@ -0,0 +1,43 @@
+package com.example.rqchallenge.employees;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import com.example.rqchallenge.employees.limits.ConcurrencyLimitProperties;
+import com.example.rqchallenge.employees.limits.EmployeeConcurrencyLimiter;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class EmployeeWebConfiguration implements WebMvcConfigurer {
+
+  @Autowired
+  private EmployeeETagInterceptor employeeETagInterceptor;
+
+  @Autowired
+  private EmployeeConcurrencyLimiter employeeConcurrencyLimiter;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    // not-modified responses are cheap, so they are answered before taking a permit
+    registry.addInterceptor(employeeETagInterceptor);
+    registry.addInterceptor(employeeConcurrencyLimiter);
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    // offered after JSON, so a request for */* or without an Accept header still gets JSON
+    converters.add(new EmployeeColumnarHttpMessageConverter());
+    // the JSON converter would otherwise write lists for any application/*+json type, including
+    // the columnar one, since it comes first
+    converters.stream().filter(MappingJackson2HttpMessageConverter.class::isInstance)
+        .map(MappingJackson2HttpMessageConverter.class::cast)
+        .forEach(json -> json.registerObjectMappersForType(List.class,
+            mappers -> mappers.put(MediaType.APPLICATION_JSON, json.getObjectMapper())));
+  }
+}
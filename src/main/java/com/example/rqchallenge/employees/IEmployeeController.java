@@ -1,18 +1,26 @@
 package com.example.rqchallenge.employees;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.Map;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.EmployeeBulkResult;
+import com.example.rqchallenge.domain.EmployeeInput;
+import com.example.rqchallenge.domain.EmployeePage;
+import com.example.rqchallenge.domain.SalaryStats;
 import com.example.rqchallenge.employees.exceptions.EmployeeNotFoundException;
 import com.example.rqchallenge.employees.exceptions.EmployeeValidationException;
+import com.example.rqchallenge.employees.limits.HeavyEndpoint;
 
 @RestController
 public interface IEmployeeController {
@@ -21,15 +29,38 @@ public interface IEmployeeController {
    * @return all employees in the repository
    * @throws IOException
    */
+  @HeavyEndpoint
   @GetMapping()
   ResponseEntity<List<Employee>> getAllEmployees() throws IOException;
 
+  /**
+   * @param after the ID of the last employee on the previous page; omit for the first page
+   * @param limit the maximum number of employees to return (1 to 1000)
+   * @return a page of employees ordered by ID and the cursor for the next page
+   * @throws EmployeeValidationException if the limit is out of range
+   */
+  @GetMapping("/page")
+  ResponseEntity<EmployeePage> getEmployeePage(@RequestParam(required = false) String after,
+      @RequestParam(defaultValue = "100") int limit) throws EmployeeValidationException;
+
+  /**
+   * @return all employees in the repository as newline-delimited JSON, written as they are read
+   */
+  @HeavyEndpoint
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  ResponseEntity<StreamingResponseBody> streamAllEmployees();
+
   /**
    * @param searchString the employee name search input (case-insensitive)
-   * @return all employees whose name contains or matches the string input provided
+   * @param limit the maximum number of employees to return (1 to 1000, default 100)
+   * @return the most relevant employees whose name contains or matches the string input provided,
+   *         exact and prefix matches first
+   * @throws EmployeeValidationException if the limit is out of range
    */
+  @HeavyEndpoint
   @GetMapping("/search/{searchString}")
-  ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString);
+  ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString,
+      @RequestParam(required = false) Integer limit) throws EmployeeValidationException;
 
   /**
    * @param id the employee ID
@@ -46,6 +77,12 @@ public interface IEmployeeController {
   @GetMapping("/highestSalary")
   ResponseEntity<Integer> getHighestSalaryOfEmployees();
 
+  /**
+   * @return the count, sum, min, max, average, percentiles (within 1%) and histogram of salaries
+   */
+  @GetMapping("/salaryStats")
+  ResponseEntity<SalaryStats> getSalaryStats();
+
   /**
    * @return the names of the top 10 highest earning employees
    */
@@ -57,14 +94,29 @@ public interface IEmployeeController {
    * 
    * @param employeeInput the employee attributes
    * @return the created employee description
-   * @throws EmployeeValidationException if any of the provided employee attributes are the wrong
-   *         type.
+   * @throws EmployeeValidationException if any of the provided employee attributes are missing or
+   *         invalid.
    */
   @PostMapping()
   ResponseEntity<Employee> createEmployee(
-      @RequestBody(required = true) Map<String, Object> employeeInput)
+      @RequestBody(required = true) EmployeeInput employeeInput)
       throws EmployeeValidationException;
 
+  /**
+   * Creates employees in batches. Every item is validated before anything is written; invalid
+   * items are reported and skipped.
+   * 
+   * @param employeeInputs a JSON array or newline-delimited JSON of employee attributes
+   * @return the result for each item, in request order
+   * @throws EmployeeValidationException if the body is malformed or has too many items
+   * @throws IOException if the body can't be read
+   */
+  @HeavyEndpoint
+  @PostMapping(value = "/bulk",
+      consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  ResponseEntity<List<EmployeeBulkResult>> createEmployees(InputStream employeeInputs)
+      throws EmployeeValidationException, IOException;
+
   /**
    * Permanently removes the employee with the provided ID
    * 
@@ -76,4 +128,18 @@ public interface IEmployeeController {
   ResponseEntity<String> deleteEmployeeById(@PathVariable String id)
       throws EmployeeNotFoundException;
 
+  /**
+   * Permanently removes the employees with the provided IDs in batches
+   * 
+   * @param ids a JSON array or newline-delimited JSON of employee ID strings
+   * @return the result for each ID, including the deleted employee's name, in request order
+   * @throws EmployeeValidationException if the body is malformed or has too many items
+   * @throws IOException if the body can't be read
+   */
+  @HeavyEndpoint
+  @DeleteMapping(value = "/bulk",
+      consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  ResponseEntity<List<EmployeeBulkResult>> deleteEmployeesById(InputStream ids)
+      throws EmployeeValidationException, IOException;
+
 }
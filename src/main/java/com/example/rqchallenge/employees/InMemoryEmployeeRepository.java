@@ -0,0 +1,640 @@
+package com.example.rqchallenge.employees;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityNotFoundException;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.ExampleMatcher.NullHandler;
+import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.EmployeeSalary;
+import com.example.rqchallenge.domain.TopEarner;
+
+/**
+ * Keeps employees in memory instead of the database, for tests and edge deployments. Employees
+ * are spread over shards by ID hash, each a sorted map behind its own lock, so operations on
+ * different employees rarely contend. Lookups by ID touch one shard; queries over every employee
+ * visit the shards one at a time, so they see each shard consistently but not the whole table at
+ * a single instant. IDs are ordered as {@link UUID}s, by their signed halves, which is how H2
+ * orders its uuid column, so keyset pages come out in the same order as from the database.
+ *
+ * <p>
+ * Selected with the in-memory profile, which leaves JPA out; if JPA is configured anyway, this
+ * takes precedence over the JPA repository.
+ */
+@Repository
+@Primary
+@Profile("in-memory")
+// nothing here is transactional; overrides the interface's annotations so that calls don't open
+// database transactions
+@Transactional(propagation = Propagation.SUPPORTS)
+public class InMemoryEmployeeRepository implements EmployeeRepository {
+
+  private static final Comparator<Employee> BY_ID =
+      Comparator.comparing(employee -> UUID.fromString(employee.getId()));
+
+  private static final Comparator<Employee> HIGHEST_SALARY_FIRST = Comparator
+      .comparing(Employee::getSalary, Comparator.nullsLast(Comparator.<Integer>reverseOrder()))
+      .thenComparing(BY_ID);
+
+  private static final Map<String, Comparator<Employee>> COMPARATORS_BY_PROPERTY = Map.of(
+      "id", BY_ID,
+      "name", Comparator.comparing(Employee::getName, Comparator.nullsFirst(
+          Comparator.<String>naturalOrder())),
+      "salary", Comparator.comparing(Employee::getSalary, Comparator.nullsFirst(
+          Comparator.<Integer>naturalOrder())),
+      "age", Comparator.comparing(Employee::getAge, Comparator.nullsFirst(
+          Comparator.<Integer>naturalOrder())));
+
+  private static final Map<String, Function<Employee, Object>> PROPERTIES = Map.of(
+      "id", Employee::getId,
+      "name", Employee::getName,
+      "salary", Employee::getSalary,
+      "age", Employee::getAge);
+
+  private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+  private final Shard[] shards;
+
+  public InMemoryEmployeeRepository() {
+    // a few shards per core keeps the chance of two threads wanting the same lock low
+    int shardCount = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) * 2;
+    shards = new Shard[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      shards[i] = new Shard();
+    }
+  }
+
+  @Override
+  public <S extends Employee> S save(S employee) {
+    if (employee.getId() == null) {
+      throw new IllegalArgumentException("Employee IDs must be assigned before saving.");
+    }
+    UUID key = UUID.fromString(employee.getId());
+    Shard shard = shardFor(employee.getId());
+    shard.lock.writeLock().lock();
+    try {
+      shard.employeesById.put(key, employee);
+    } finally {
+      shard.lock.writeLock().unlock();
+    }
+    return employee;
+  }
+
+  @Override
+  public <S extends Employee> List<S> saveAll(Iterable<S> employees) {
+    List<S> saved = new ArrayList<>();
+    for (S employee : employees) {
+      saved.add(save(employee));
+    }
+    return saved;
+  }
+
+  @Override
+  public <S extends Employee> S saveAndFlush(S employee) {
+    return save(employee);
+  }
+
+  @Override
+  public <S extends Employee> List<S> saveAllAndFlush(Iterable<S> employees) {
+    return saveAll(employees);
+  }
+
+  @Override
+  public Optional<Employee> findById(String id) {
+    if (id == null) {
+      throw new IllegalArgumentException("The ID must not be null.");
+    }
+    Optional<UUID> key = toKey(id);
+    if (key.isEmpty()) {
+      return Optional.empty();
+    }
+    Shard shard = shardFor(id);
+    shard.lock.readLock().lock();
+    try {
+      return Optional.ofNullable(shard.employeesById.get(key.get()));
+    } finally {
+      shard.lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean existsById(String id) {
+    return findById(id).isPresent();
+  }
+
+  @Override
+  @Deprecated
+  public Employee getOne(String id) {
+    return getById(id);
+  }
+
+  @Override
+  public Employee getById(String id) {
+    return findById(id).orElseThrow(
+        () -> new EntityNotFoundException(String.format("No employee with ID %s.", id)));
+  }
+
+  @Override
+  public List<Employee> findAll() {
+    return collect(employee -> true);
+  }
+
+  @Override
+  public List<Employee> findAll(Sort sort) {
+    List<Employee> employees = findAll();
+    employees.sort(toComparator(sort));
+    return employees;
+  }
+
+  @Override
+  public Page<Employee> findAll(Pageable pageable) {
+    return toPage(findAll(pageable.getSort()), pageable);
+  }
+
+  @Override
+  public List<Employee> findAllById(Iterable<String> ids) {
+    List<Employee> employees = new ArrayList<>();
+    for (String id : new HashSet<>(toList(ids))) {
+      findById(id).ifPresent(employees::add);
+    }
+    return employees;
+  }
+
+  @Override
+  public long count() {
+    long count = 0;
+    for (Shard shard : shards) {
+      shard.lock.readLock().lock();
+      try {
+        count += shard.employeesById.size();
+      } finally {
+        shard.lock.readLock().unlock();
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public void deleteById(String id) {
+    if (removeById(id) == 0) {
+      throw new EmptyResultDataAccessException(
+          String.format("No employee with ID %s exists.", id), 1);
+    }
+  }
+
+  @Override
+  public void delete(Employee employee) {
+    removeById(employee.getId());
+  }
+
+  @Override
+  public void deleteAllById(Iterable<? extends String> ids) {
+    ids.forEach(this::deleteById);
+  }
+
+  @Override
+  public void deleteAll(Iterable<? extends Employee> employees) {
+    employees.forEach(this::delete);
+  }
+
+  @Override
+  public void deleteAll() {
+    for (Shard shard : shards) {
+      shard.lock.writeLock().lock();
+      try {
+        shard.employeesById.clear();
+      } finally {
+        shard.lock.writeLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void deleteAllInBatch(Iterable<Employee> employees) {
+    employees.forEach(this::delete);
+  }
+
+  @Override
+  public void deleteAllByIdInBatch(Iterable<String> ids) {
+    ids.forEach(this::removeById);
+  }
+
+  @Override
+  public void deleteAllInBatch() {
+    deleteAll();
+  }
+
+  @Override
+  public void flush() {
+    // writes are applied immediately
+  }
+
+  @Override
+  public List<Employee> findByNameContainsIgnoreCase(String searchString) {
+    return collect(employee -> employee.getName() != null
+        && containsIgnoreCase(employee.getName(), searchString));
+  }
+
+  @Override
+  public Optional<Integer> findHighestSalary() {
+    Integer highest = null;
+    for (Shard shard : shards) {
+      shard.lock.readLock().lock();
+      try {
+        for (Employee employee : shard.employeesById.values()) {
+          Integer salary = employee.getSalary();
+          if (salary != null && (highest == null || salary > highest)) {
+            highest = salary;
+          }
+        }
+      } finally {
+        shard.lock.readLock().unlock();
+      }
+    }
+    return Optional.ofNullable(highest);
+  }
+
+  @Override
+  public List<String> findNamesOrderBySalaryDesc(Pageable pageable) {
+    List<Employee> top = findHighestEarning((int) (pageable.getOffset() + pageable.getPageSize()));
+    return top.stream().skip(pageable.getOffset()).map(Employee::getName)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public List<EmployeeSalary> findFirst10ByOrderBySalaryDesc() {
+    return findHighestEarning(10).stream()
+        .map(employee -> new TopEarner(employee.getName(), employee.getSalary()))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public List<Employee> findFirstPage(Pageable pageable) {
+    return findPage(null, pageable);
+  }
+
+  @Override
+  public List<Employee> findPageAfter(String after, Pageable pageable) {
+    return findPage(after, pageable);
+  }
+
+  @Override
+  public Stream<Employee> streamAll() {
+    return findAll().stream();
+  }
+
+  @Override
+  public int removeById(String id) {
+    Optional<UUID> key = toKey(id);
+    if (key.isEmpty()) {
+      return 0;
+    }
+    Shard shard = shardFor(id);
+    shard.lock.writeLock().lock();
+    try {
+      return shard.employeesById.remove(key.get()) != null ? 1 : 0;
+    } finally {
+      shard.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public <S extends Employee> Optional<S> findOne(Example<S> example) {
+    return atMostOne(findAll(example));
+  }
+
+  @Override
+  public <S extends Employee> List<S> findAll(Example<S> example) {
+    return findAll(example, Sort.unsorted());
+  }
+
+  @Override
+  public <S extends Employee> List<S> findAll(Example<S> example, Sort sort) {
+    @SuppressWarnings("unchecked")
+    List<S> employees = (List<S>) (List<?>) collect(toPredicate(example));
+    employees.sort(toComparator(sort));
+    return employees;
+  }
+
+  @Override
+  public <S extends Employee> Page<S> findAll(Example<S> example, Pageable pageable) {
+    return toPage(findAll(example, pageable.getSort()), pageable);
+  }
+
+  @Override
+  public <S extends Employee> long count(Example<S> example) {
+    return collect(toPredicate(example)).size();
+  }
+
+  @Override
+  public <S extends Employee> boolean exists(Example<S> example) {
+    return count(example) > 0;
+  }
+
+  @Override
+  public <S extends Employee, R> R findBy(Example<S> example,
+      Function<FetchableFluentQuery<S>, R> queryFunction) {
+    return queryFunction.apply(new ExampleQuery<>(example, Sort.unsorted(), Function.identity()));
+  }
+
+  /**
+   * Takes up to offset + page size employees after the cursor from each shard, since any of
+   * them could hold the whole page, and merges them.
+   */
+  private List<Employee> findPage(String after, Pageable pageable) {
+    int wanted = (int) (pageable.getOffset() + pageable.getPageSize());
+    UUID afterKey = after == null ? null : UUID.fromString(after);
+    List<Employee> candidates = new ArrayList<>();
+    for (Shard shard : shards) {
+      shard.lock.readLock().lock();
+      try {
+        NavigableMap<UUID, Employee> page = afterKey == null ? shard.employeesById
+            : shard.employeesById.tailMap(afterKey, false);
+        int taken = 0;
+        for (Employee employee : page.values()) {
+          if (taken++ == wanted) {
+            break;
+          }
+          candidates.add(employee);
+        }
+      } finally {
+        shard.lock.readLock().unlock();
+      }
+    }
+    candidates.sort(BY_ID);
+    int from = (int) Math.min(pageable.getOffset(), candidates.size());
+    return new ArrayList<>(candidates.subList(from, Math.min(wanted, candidates.size())));
+  }
+
+  /**
+   * Keeps the highest earners seen so far in a heap bounded to the limit, lowest on top.
+   */
+  private List<Employee> findHighestEarning(int limit) {
+    PriorityQueue<Employee> top = new PriorityQueue<>(limit + 1, HIGHEST_SALARY_FIRST.reversed());
+    for (Shard shard : shards) {
+      shard.lock.readLock().lock();
+      try {
+        for (Employee employee : shard.employeesById.values()) {
+          top.add(employee);
+          if (top.size() > limit) {
+            top.poll();
+          }
+        }
+      } finally {
+        shard.lock.readLock().unlock();
+      }
+    }
+    List<Employee> highest = new ArrayList<>(top);
+    highest.sort(HIGHEST_SALARY_FIRST);
+    return highest;
+  }
+
+  private List<Employee> collect(Predicate<Employee> filter) {
+    List<Employee> employees = new ArrayList<>();
+    for (Shard shard : shards) {
+      shard.lock.readLock().lock();
+      try {
+        for (Employee employee : shard.employeesById.values()) {
+          if (filter.test(employee)) {
+            employees.add(employee);
+          }
+        }
+      } finally {
+        shard.lock.readLock().unlock();
+      }
+    }
+    return employees;
+  }
+
+  private Shard shardFor(String id) {
+    int hash = id.hashCode();
+    // mix the high bits in, as HashMap does, since only the low bits pick the shard
+    return shards[(hash ^ (hash >>> 16)) & (shards.length - 1)];
+  }
+
+  /**
+   * @return the ID as a UUID, or empty if it isn't one, in which case no employee has it
+   */
+  private static Optional<UUID> toKey(String id) {
+    return Employee.isValidId(id) ? Optional.of(UUID.fromString(id)) : Optional.empty();
+  }
+
+  private static boolean containsIgnoreCase(String name, String searchString) {
+    int last = name.length() - searchString.length();
+    for (int start = 0; start <= last; start++) {
+      if (name.regionMatches(true, start, searchString, 0, searchString.length())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Comparator<Employee> toComparator(Sort sort) {
+    Comparator<Employee> comparator = (left, right) -> 0;
+    for (Sort.Order order : sort) {
+      Comparator<Employee> property = COMPARATORS_BY_PROPERTY.get(order.getProperty());
+      if (property == null) {
+        throw new IllegalArgumentException(
+            String.format("Cannot sort employees by %s.", order.getProperty()));
+      }
+      comparator = comparator.thenComparing(order.isAscending() ? property : property.reversed());
+    }
+    return comparator;
+  }
+
+  private static <T> List<T> toList(Iterable<T> iterable) {
+    List<T> list = new ArrayList<>();
+    iterable.forEach(list::add);
+    return list;
+  }
+
+  private static <T> Page<T> toPage(List<T> employees, Pageable pageable) {
+    if (pageable.isUnpaged()) {
+      return new PageImpl<>(employees);
+    }
+    int from = (int) Math.min(pageable.getOffset(), employees.size());
+    int to = Math.min(from + pageable.getPageSize(), employees.size());
+    return new PageImpl<>(new ArrayList<>(employees.subList(from, to)), pageable,
+        employees.size());
+  }
+
+  private static <T> Optional<T> atMostOne(List<T> employees) {
+    if (employees.size() > 1) {
+      throw new IncorrectResultSizeDataAccessException(1, employees.size());
+    }
+    return employees.stream().findFirst();
+  }
+
+  /**
+   * Matches employees the way the JPA repository builds its query from the example: each
+   * non-null property of the probe, and each null one if nulls are included, is a condition, and
+   * strings are compared with the matcher configured for their property.
+   */
+  private static Predicate<Employee> toPredicate(Example<? extends Employee> example) {
+    ExampleMatcher matcher = example.getMatcher();
+    ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(matcher);
+    List<Predicate<Employee>> conditions = new ArrayList<>();
+    PROPERTIES.forEach((property, getter) -> {
+      if (accessor.isIgnoredPath(property)) {
+        return;
+      }
+      Object expected = accessor.getValueTransformerForPath(property)
+          .apply(Optional.ofNullable(getter.apply(example.getProbe()))).orElse(null);
+      if (expected == null) {
+        if (matcher.getNullHandler() == NullHandler.INCLUDE) {
+          conditions.add(employee -> getter.apply(employee) == null);
+        }
+      } else if (expected instanceof String) {
+        StringMatcher stringMatcher = accessor.getStringMatcherForPath(property);
+        boolean ignoreCase = accessor.isIgnoreCaseForPath(property);
+        conditions.add(employee -> matches((String) getter.apply(employee), (String) expected,
+            stringMatcher, ignoreCase));
+      } else {
+        conditions.add(employee -> expected.equals(getter.apply(employee)));
+      }
+    });
+    if (matcher.isAnyMatching() && !conditions.isEmpty()) {
+      return employee -> conditions.stream().anyMatch(condition -> condition.test(employee));
+    }
+    return employee -> conditions.stream().allMatch(condition -> condition.test(employee));
+  }
+
+  private static boolean matches(String actual, String expected, StringMatcher stringMatcher,
+      boolean ignoreCase) {
+    if (actual == null) {
+      return false;
+    }
+    if (ignoreCase) {
+      actual = actual.toLowerCase(Locale.ROOT);
+      expected = expected.toLowerCase(Locale.ROOT);
+    }
+    switch (stringMatcher) {
+      case DEFAULT:
+      case EXACT:
+        return actual.equals(expected);
+      case STARTING:
+        return actual.startsWith(expected);
+      case ENDING:
+        return actual.endsWith(expected);
+      case CONTAINING:
+        return actual.contains(expected);
+      default:
+        // as with the JPA repository
+        throw new IllegalArgumentException(
+            String.format("Unsupported string matcher %s.", stringMatcher));
+    }
+  }
+
+  /**
+   * Runs the queries of {@link InMemoryEmployeeRepository#findBy(Example, Function)} over the
+   * matching employees. As with the JPA repository, results can be projected to interfaces only,
+   * and the properties to fetch make no difference since every employee is already in memory.
+   */
+  private final class ExampleQuery<S extends Employee, R> implements FetchableFluentQuery<R> {
+
+    private final Example<S> example;
+
+    private final Sort sort;
+
+    private final Function<S, R> mapper;
+
+    private ExampleQuery(Example<S> example, Sort sort, Function<S, R> mapper) {
+      this.example = example;
+      this.sort = sort;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public FetchableFluentQuery<R> sortBy(Sort sort) {
+      return new ExampleQuery<>(example, this.sort.and(sort), mapper);
+    }
+
+    @Override
+    public <T> FetchableFluentQuery<T> as(Class<T> resultType) {
+      if (!resultType.isInterface()) {
+        throw new UnsupportedOperationException("Class-based DTOs are not yet supported.");
+      }
+      return new ExampleQuery<>(example, sort,
+          employee -> PROJECTIONS.createProjection(resultType, employee));
+    }
+
+    @Override
+    public FetchableFluentQuery<R> project(Collection<String> properties) {
+      return this;
+    }
+
+    @Override
+    public R oneValue() {
+      return atMostOne(all()).orElse(null);
+    }
+
+    @Override
+    public R firstValue() {
+      return all().stream().findFirst().orElse(null);
+    }
+
+    @Override
+    public List<R> all() {
+      return stream().collect(Collectors.toList());
+    }
+
+    @Override
+    public Page<R> page(Pageable pageable) {
+      return toPage(findAll(example, sort.and(pageable.getSort())), pageable).map(mapper);
+    }
+
+    @Override
+    public Stream<R> stream() {
+      return findAll(example, sort).stream().map(mapper);
+    }
+
+    @Override
+    public long count() {
+      return InMemoryEmployeeRepository.this.count(example);
+    }
+
+    @Override
+    public boolean exists() {
+      return InMemoryEmployeeRepository.this.exists(example);
+    }
+  }
+
+  private static final class Shard {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<UUID, Employee> employeesById = new TreeMap<>();
+  }
+}
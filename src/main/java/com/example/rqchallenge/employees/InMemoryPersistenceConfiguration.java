@@ -0,0 +1,60 @@
+package com.example.rqchallenge.employees;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import com.example.rqchallenge.domain.Employee;
+
+/**
+ * Stands in for JPA under the in-memory profile, which leaves out the data source, JPA and Flyway
+ * auto-configuration: {@link InMemoryEmployeeRepository} applies every write immediately, so
+ * there is nothing for a transaction to commit or roll back and no persistence context to clear.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("in-memory")
+public class InMemoryPersistenceConfiguration {
+
+  @Bean
+  public PlatformTransactionManager transactionManager() {
+    return new NoOpTransactionManager();
+  }
+
+  @Bean
+  public EmployeePersistenceContext employeePersistenceContext() {
+    return new EmployeePersistenceContext() {
+      @Override
+      public void detach(Employee employee) {
+        // never attached
+      }
+
+      @Override
+      public void detachAll() {
+        // never attached
+      }
+    };
+  }
+
+  /**
+   * Runs transaction templates and synchronizations without any resource behind them.
+   */
+  private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+      return new Object();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {}
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {}
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {}
+  }
+}
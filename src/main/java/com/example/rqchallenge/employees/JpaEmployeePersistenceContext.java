@@ -0,0 +1,28 @@
+package com.example.rqchallenge.employees;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import com.example.rqchallenge.domain.Employee;
+
+/**
+ * Detaches employees from the entity manager bound to the current transaction.
+ */
+@Component
+@Profile("!in-memory")
+public class JpaEmployeePersistenceContext implements EmployeePersistenceContext {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public void detach(Employee employee) {
+    entityManager.detach(employee);
+  }
+
+  @Override
+  public void detachAll() {
+    entityManager.clear();
+  }
+}
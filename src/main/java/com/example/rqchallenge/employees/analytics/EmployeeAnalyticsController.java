@@ -0,0 +1,66 @@
+package com.example.rqchallenge.employees.analytics;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import com.example.rqchallenge.domain.SalarySummary;
+import com.example.rqchallenge.domain.TopEarner;
+import com.example.rqchallenge.employees.exceptions.EmployeeValidationException;
+import com.example.rqchallenge.employees.index.EmployeeColumns.Filter;
+import com.example.rqchallenge.employees.limits.HeavyEndpoint;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Filters and aggregates answered from the columnar copy of the employee table. Every range bound
+ * is optional and inclusive.
+ */
+@RestController
+@RequestMapping("/analytics")
+@ConditionalOnProperty(name = "employees.columnar.enabled", havingValue = "true")
+@Slf4j
+public class EmployeeAnalyticsController {
+
+  @Autowired
+  private EmployeeAnalyticsHandler employeeAnalyticsHandler;
+
+  /**
+   * @return the count of employees in the salary and age ranges, and the sum, min, max and
+   *         average of their salaries
+   * @throws EmployeeValidationException if a range is empty
+   */
+  @HeavyEndpoint
+  @GetMapping("/salary")
+  public ResponseEntity<SalarySummary> getSalarySummary(
+      @RequestParam(required = false) Integer minSalary,
+      @RequestParam(required = false) Integer maxSalary,
+      @RequestParam(required = false) Integer minAge,
+      @RequestParam(required = false) Integer maxAge) throws EmployeeValidationException {
+    log.debug("Summarizing salaries of employees");
+    return employeeAnalyticsHandler
+        .getSalarySummary(Filter.of(minSalary, maxSalary, minAge, maxAge));
+  }
+
+  /**
+   * @param limit the maximum number of employees to return (1 to 1000)
+   * @return the names and salaries of the highest earning employees in the salary and age
+   *         ranges, highest salary first
+   * @throws EmployeeValidationException if the limit is out of range or a range is empty
+   */
+  @HeavyEndpoint
+  @GetMapping("/topEarners")
+  public ResponseEntity<List<TopEarner>> getTopEarners(
+      @RequestParam(required = false) Integer minSalary,
+      @RequestParam(required = false) Integer maxSalary,
+      @RequestParam(required = false) Integer minAge,
+      @RequestParam(required = false) Integer maxAge,
+      @RequestParam(defaultValue = "10") int limit) throws EmployeeValidationException {
+    log.debug("Retrieving {} top earners", limit);
+    return employeeAnalyticsHandler
+        .getTopEarners(Filter.of(minSalary, maxSalary, minAge, maxAge), limit);
+  }
+}
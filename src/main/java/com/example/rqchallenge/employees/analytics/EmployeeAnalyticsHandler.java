@@ -0,0 +1,83 @@
+package com.example.rqchallenge.employees.analytics;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import com.example.rqchallenge.domain.SalarySummary;
+import com.example.rqchallenge.domain.TopEarner;
+import com.example.rqchallenge.employees.exceptions.EmployeeValidationException;
+import com.example.rqchallenge.employees.index.EmployeeColumns;
+import com.example.rqchallenge.employees.index.EmployeeColumns.Filter;
+import com.example.rqchallenge.employees.index.EmployeeIndexes;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@ConditionalOnProperty(name = "employees.columnar.enabled", havingValue = "true")
+@Slf4j
+public class EmployeeAnalyticsHandler {
+
+  static final int MAX_TOP_EARNERS = 1000;
+
+  @Autowired
+  private EmployeeColumns employeeColumns;
+
+  @Autowired
+  private EmployeeIndexes employeeIndexes;
+
+  /**
+   * @param filter the employees to include
+   * @return the count of matching employees and aggregates of their salaries, or service
+   *         unavailable while the columns are being rebuilt
+   * @throws EmployeeValidationException if a range is empty
+   */
+  public ResponseEntity<SalarySummary> getSalarySummary(Filter filter)
+      throws EmployeeValidationException {
+    validate(filter);
+    if (employeeIndexes.isRebuilding()) {
+      return unavailable();
+    }
+    SalarySummary summary = employeeColumns.summarize(filter);
+    log.debug("Summarized salaries of {} employees matching {}", summary.getCount(), filter);
+    return ResponseEntity.ok(summary);
+  }
+
+  /**
+   * @param filter the employees to include
+   * @param limit the maximum number of employees to return
+   * @return the highest earning matching employees, highest salary first, or service unavailable
+   *         while the columns are being rebuilt
+   * @throws EmployeeValidationException if the limit is out of range or a range is empty
+   */
+  public ResponseEntity<List<TopEarner>> getTopEarners(Filter filter, int limit)
+      throws EmployeeValidationException {
+    if (limit < 1 || limit > MAX_TOP_EARNERS) {
+      throw new EmployeeValidationException(
+          String.format("Top earner limit must be between 1 and %d.", MAX_TOP_EARNERS));
+    }
+    validate(filter);
+    if (employeeIndexes.isRebuilding()) {
+      return unavailable();
+    }
+    List<TopEarner> earners = employeeColumns.getTopEarners(filter, limit);
+    log.debug("Found {} top earners matching {}", earners.size(), filter);
+    return ResponseEntity.ok(earners);
+  }
+
+  private static void validate(Filter filter) throws EmployeeValidationException {
+    if (filter.getMinSalary() > filter.getMaxSalary()) {
+      throw new EmployeeValidationException("Minimum salary must not exceed maximum salary.");
+    }
+    if (filter.getMinAge() > filter.getMaxAge()) {
+      throw new EmployeeValidationException("Minimum age must not exceed maximum age.");
+    }
+  }
+
+  private static <T> ResponseEntity<T> unavailable() {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1").build();
+  }
+}
@@ -0,0 +1,116 @@
+package com.example.rqchallenge.employees.cache;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.rqchallenge.datasource.ReadRouting;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.employees.store.EmployeeStore;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * A bounded read-through cache of employees by ID. Missing IDs are cached as empty so repeated
+ * lookups of an unknown ID don't reach the database either. Concurrent misses for the same ID
+ * share a single load.
+ */
+@Component
+public class EmployeeCache {
+
+  private static final int STAMP_STRIPES = 1024;
+
+  @Autowired
+  private EmployeeStore employeeStore;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${employees.cache.maximum-size:10000}")
+  private long maximumSize;
+
+  @Value("${employees.cache.expire-after-write-seconds:300}")
+  private long expireAfterWriteSeconds;
+
+  // a load that started before an invalidation would otherwise store what it read afterwards,
+  // so each invalidation bumps the stamp of its ID's stripe and such loads are discarded
+  private final AtomicLongArray invalidationStamps = new AtomicLongArray(STAMP_STRIPES);
+
+  private LoadingCache<String, Optional<Employee>> employeesById;
+
+  @PostConstruct
+  void init() {
+    employeesById = CacheBuilder.newBuilder().maximumSize(maximumSize)
+        .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS).recordStats()
+        .build(CacheLoader.from(this::load));
+    GuavaCacheMetrics.monitor(meterRegistry, employeesById, "employeesById");
+  }
+
+  /**
+   * @param id the employee ID
+   * @return the employee with the provided ID, or empty if there is none
+   */
+  public Optional<Employee> get(String id) {
+    long stamp = invalidationStamps.get(stripe(id));
+    try {
+      Optional<Employee> employee = employeesById.getUnchecked(id);
+      if (invalidationStamps.get(stripe(id)) != stamp) {
+        // possibly loaded before the invalidation; the caller overlapped it, but later ones must
+        // not see it
+        employeesById.asMap().remove(id, employee);
+      }
+      return employee;
+    } catch (UncheckedExecutionException e) {
+      // surface repository failures as they would be thrown without the cache
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
+  /**
+   * @param employee the employee that was created
+   */
+  public void put(Employee employee) {
+    employeesById.put(employee.getId(), Optional.of(employee));
+  }
+
+  /**
+   * @param id the ID of the employee that was deleted
+   */
+  public void invalidate(String id) {
+    invalidationStamps.incrementAndGet(stripe(id));
+    employeesById.invalidate(id);
+  }
+
+  /**
+   * @return the hit, miss, load and eviction counts since startup
+   */
+  public CacheStats stats() {
+    return employeesById.stats();
+  }
+
+  /**
+   * @return the approximate number of cached IDs, including missing ones
+   */
+  public long size() {
+    return employeesById.size();
+  }
+
+  private Optional<Employee> load(String id) {
+    // an entry outlives the read that loaded it, so it must not come from a lagging replica
+    return ReadRouting.onPrimary(() -> employeeStore.findById(id));
+  }
+
+  private static int stripe(String id) {
+    return id.hashCode() & (STAMP_STRIPES - 1);
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.rqchallenge.employees.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Exposes the employee cache statistics at /actuator/employeecache for tuning the cache size.
+ */
+@Component
+@Endpoint(id = "employeecache")
+public class EmployeeCacheEndpoint {
+
+  @Autowired
+  private EmployeeCache employeeCache;
+
+  @ReadOperation
+  public Map<String, Object> stats() {
+    CacheStats stats = employeeCache.stats();
+    Map<String, Object> details = new LinkedHashMap<>();
+    details.put("size", employeeCache.size());
+    details.put("hitCount", stats.hitCount());
+    details.put("missCount", stats.missCount());
+    details.put("hitRate", stats.hitRate());
+    details.put("evictionCount", stats.evictionCount());
+    details.put("loadExceptionCount", stats.loadExceptionCount());
+    details.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+    return details;
+  }
+}
@@ -0,0 +1,189 @@
+package com.example.rqchallenge.employees.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import com.example.rqchallenge.datasource.ReadRouting;
+import com.example.rqchallenge.employees.index.EmployeeVersions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keeps the encoded JSON of the hot read endpoints and writes it straight to the response while
+ * the employee table is unchanged, skipping the handler and Jackson. Entries are tagged with the
+ * table version they were rendered at, so any create or delete invalidates them.
+ */
+@Component
+public class EmployeeResponseCache extends OncePerRequestFilter {
+
+  static final String CACHE_METRIC = "employees.response.cache";
+
+  private static final Set<String> CACHED_PATHS =
+      Set.of("/", "/highestSalary", "/topTenHighestEarningEmployeeNames", "/salaryStats");
+
+  // below this, gzip framing costs about as much as it saves
+  private static final int MIN_GZIP_BYTES = 1024;
+
+  @Autowired
+  private EmployeeVersions employeeVersions;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${employees.response-cache.enabled:true}")
+  private boolean enabled;
+
+  @Value("${employees.response-cache.gzip:true}")
+  private boolean gzip;
+
+  @Value("${employees.response-cache.max-body-bytes:16777216}")
+  private int maxBodyBytes;
+
+  private final ConcurrentMap<String, CachedResponse> responsesByPath = new ConcurrentHashMap<>();
+
+  private Counter hits;
+
+  private Counter misses;
+
+  @PostConstruct
+  void init() {
+    hits = Counter.builder(CACHE_METRIC).tag("result", "hit").register(meterRegistry);
+    misses = Counter.builder(CACHE_METRIC).tag("result", "miss").register(meterRegistry);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    // conditional requests are left to EmployeeETagInterceptor, which answers them without a body
+    return !enabled || !HttpMethod.GET.matches(request.getMethod())
+        || request.getQueryString() != null || request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+        || !CACHED_PATHS.contains(getPath(request)) || !acceptsOnlyJson(request);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String path = getPath(request);
+    // read before rendering, so an entry is never older than its tag
+    String tableTag = employeeVersions.getTableTag();
+    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    if (gzip) {
+      response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+    CachedResponse cached = responsesByPath.get(path);
+    if (cached != null && cached.tableTag.equals(tableTag)) {
+      hits.increment();
+      // the handler mapping is skipped, so name the endpoint for the request metrics
+      request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, path);
+      write(cached, request, response);
+      return;
+    }
+
+    misses.increment();
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+    // the entry is served to every client, including one that has just written, so it is
+    // rendered from the primary rather than a replica that may lag behind the table tag
+    boolean pinned = ReadRouting.pin();
+    try {
+      filterChain.doFilter(request, wrapper);
+    } finally {
+      ReadRouting.restore(pinned);
+    }
+    if (wrapper.getStatus() == HttpServletResponse.SC_OK
+        && wrapper.getContentSize() <= maxBodyBytes) {
+      byte[] body = wrapper.getContentAsByteArray();
+      byte[] gzippedBody = gzip && body.length >= MIN_GZIP_BYTES ? gzip(body) : null;
+      responsesByPath.put(path, new CachedResponse(tableTag, wrapper.getContentType(),
+          wrapper.getHeader(HttpHeaders.ETAG), body, gzippedBody));
+    }
+    wrapper.copyBodyToResponse();
+  }
+
+  private void write(CachedResponse cached, HttpServletRequest request,
+      HttpServletResponse response) throws IOException {
+    byte[] body = cached.body;
+    if (cached.gzippedBody != null && acceptsGzip(request)) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+      body = cached.gzippedBody;
+    }
+    response.setContentType(cached.contentType);
+    if (cached.etag != null) {
+      response.setHeader(HttpHeaders.ETAG, cached.etag);
+    }
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  /**
+   * Cached bodies are JSON, so a request that could negotiate Smile, CBOR or columnar JSON instead
+   * goes to the handler.
+   */
+  private static boolean acceptsOnlyJson(HttpServletRequest request) {
+    String accept = request.getHeader(HttpHeaders.ACCEPT);
+    if (accept == null) {
+      return true;
+    }
+    try {
+      return MediaType.parseMediaTypes(accept).stream()
+          .allMatch(mediaType -> mediaType.isCompatibleWith(MediaType.APPLICATION_JSON));
+    } catch (InvalidMediaTypeException e) {
+      return false;
+    }
+  }
+
+  private static boolean acceptsGzip(HttpServletRequest request) {
+    String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    return acceptEncoding != null && acceptEncoding.contains("gzip");
+  }
+
+  private static byte[] gzip(byte[] body) throws IOException {
+    ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 4);
+    try (GZIPOutputStream outputStream = new GZIPOutputStream(gzipped)) {
+      outputStream.write(body);
+    }
+    return gzipped.toByteArray();
+  }
+
+  private static String getPath(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
+
+  private static final class CachedResponse {
+
+    private final String tableTag;
+
+    private final String contentType;
+
+    private final String etag;
+
+    private final byte[] body;
+
+    private final byte[] gzippedBody;
+
+    private CachedResponse(String tableTag, String contentType, String etag, byte[] body,
+        byte[] gzippedBody) {
+      this.tableTag = tableTag;
+      this.contentType = contentType;
+      this.etag = etag;
+      this.body = body;
+      this.gzippedBody = gzippedBody;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.example.rqchallenge.employees.changes;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import com.example.rqchallenge.domain.EmployeeChanges;
+import com.example.rqchallenge.employees.exceptions.EmployeeValidationException;
+import com.example.rqchallenge.employees.limits.UnlimitedEndpoint;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A feed of creates and deletes for clients keeping their own copy of the employees. A client
+ * starts by requesting the feed without since, loads every employee, and then polls from the
+ * returned next. A response with status 410 and resync set means the client fell too far behind
+ * and must load every employee again.
+ */
+@RestController
+@Slf4j
+public class EmployeeChangeController {
+
+  @Autowired
+  private EmployeeChangeHandler employeeChangeHandler;
+
+  /**
+   * @param since the next value from the previous response; omit to get the starting point
+   * @param epoch the epoch from the previous response, to detect a restart of the service
+   * @param limit the maximum number of changes to return (1 to 1000)
+   * @param waitMs how long to hold the request open if there are no changes yet (long poll)
+   * @return the changes after since, oldest first
+   * @throws EmployeeValidationException if since, limit or waitMs are out of range
+   */
+  @UnlimitedEndpoint
+  @GetMapping("/changes")
+  public DeferredResult<ResponseEntity<EmployeeChanges>> getChanges(
+      @RequestParam(required = false) Long since, @RequestParam(required = false) String epoch,
+      @RequestParam(defaultValue = "1000") int limit,
+      @RequestParam(defaultValue = "0") long waitMs) throws EmployeeValidationException {
+    log.debug("Retrieving changes since {} waiting up to {} ms", since, waitMs);
+    return employeeChangeHandler.getChanges(since, epoch, limit, waitMs);
+  }
+}
@@ -0,0 +1,126 @@
+package com.example.rqchallenge.employees.changes;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.EmployeeChange;
+import com.example.rqchallenge.domain.EmployeeChange.Type;
+
+/**
+ * The most recent creates and deletes, in a bounded ring buffer numbered from 1. Once the buffer
+ * is full each change overwrites the oldest, so a client that falls further behind than the
+ * capacity has to resync. The stores publish each write once it is committed.
+ */
+@Component
+public class EmployeeChangeFeed {
+
+  // a restart starts numbering again, so clients compare the epoch to detect it
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+  @Value("${employees.changes.capacity:10000}")
+  private int capacity;
+
+  // guarded by this
+  private EmployeeChange[] changes;
+
+  // guarded by this
+  private long latest;
+
+  // guarded by this
+  private Set<CompletableFuture<Void>> waiters = new HashSet<>();
+
+  @PostConstruct
+  void init() {
+    changes = new EmployeeChange[capacity];
+  }
+
+  /**
+   * @param employee the employee that was created
+   */
+  public void created(Employee employee) {
+    publish(Type.CREATED, employee.getId(), employee);
+  }
+
+  /**
+   * @param id the ID of the employee that was deleted
+   */
+  public void deleted(String id) {
+    publish(Type.DELETED, id, null);
+  }
+
+  /**
+   * @param since the sequence of the last change the client has seen, or 0 for none
+   * @param limit the maximum number of changes to return
+   * @return the changes after since, oldest first, or empty if some of them are no longer
+   *         retained or since is from the future
+   */
+  public synchronized Optional<List<EmployeeChange>> getChangesAfter(long since, int limit) {
+    if (since > latest || since < latest - capacity) {
+      return Optional.empty();
+    }
+    int count = (int) Math.min(limit, latest - since);
+    List<EmployeeChange> after = new ArrayList<>(count);
+    for (long sequence = since + 1; sequence <= since + count; sequence++) {
+      after.add(changes[index(sequence)]);
+    }
+    return Optional.of(after);
+  }
+
+  /**
+   * @param since the sequence of the last change the client has seen
+   * @return a future completed by the first change after since, already complete if there is
+   *         one; pass it to {@link #cancel} if it is abandoned
+   */
+  public synchronized CompletableFuture<Void> awaitChangeAfter(long since) {
+    if (since != latest) {
+      return CompletableFuture.completedFuture(null);
+    }
+    CompletableFuture<Void> waiter = new CompletableFuture<>();
+    waiters.add(waiter);
+    return waiter;
+  }
+
+  /**
+   * @param waiter a future returned by {@link #awaitChangeAfter} that is no longer needed
+   */
+  public synchronized void cancel(CompletableFuture<Void> waiter) {
+    waiters.remove(waiter);
+  }
+
+  /**
+   * @return the feed's epoch
+   */
+  public String getEpoch() {
+    return epoch;
+  }
+
+  /**
+   * @return the sequence of the latest change, or 0 if there are none
+   */
+  public synchronized long getLatest() {
+    return latest;
+  }
+
+  private void publish(Type type, String id, Employee employee) {
+    Set<CompletableFuture<Void>> woken;
+    synchronized (this) {
+      latest++;
+      changes[index(latest)] = new EmployeeChange(latest, type, id, employee);
+      woken = waiters;
+      waiters = new HashSet<>();
+    }
+    // completed outside the lock, since completing runs the waiters' callbacks
+    woken.forEach(waiter -> waiter.complete(null));
+  }
+
+  private int index(long sequence) {
+    return (int) (sequence % capacity);
+  }
+}
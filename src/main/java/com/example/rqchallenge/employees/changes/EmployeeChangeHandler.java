@@ -0,0 +1,100 @@
+package com.example.rqchallenge.employees.changes;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import com.example.rqchallenge.domain.EmployeeChange;
+import com.example.rqchallenge.domain.EmployeeChanges;
+import com.example.rqchallenge.employees.exceptions.EmployeeValidationException;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class EmployeeChangeHandler {
+
+  static final int MAX_CHANGES = 1000;
+
+  @Autowired
+  private EmployeeChangeFeed employeeChangeFeed;
+
+  // waiters are answered here rather than on the thread of the request that made the change
+  @Autowired
+  @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+  private Executor applicationTaskExecutor;
+
+  @Value("${employees.changes.max-wait-ms:30000}")
+  private long maxWaitMs;
+
+  /**
+   * @param since the sequence of the last change the client has seen, or null to get the
+   *        sequence to start from
+   * @param epoch the epoch since came from, or null to skip the check
+   * @param limit the maximum number of changes to return
+   * @param waitMs how long to wait for a change if there are none yet
+   * @return the changes after since, oldest first, which is empty if none were made in time, or
+   *         gone with resync set if they are no longer retained
+   * @throws EmployeeValidationException if since, limit or waitMs are out of range
+   */
+  public DeferredResult<ResponseEntity<EmployeeChanges>> getChanges(Long since, String epoch,
+      int limit, long waitMs) throws EmployeeValidationException {
+    if (since != null && since < 0) {
+      throw new EmployeeValidationException("Changes since must not be negative.");
+    }
+    if (limit < 1 || limit > MAX_CHANGES) {
+      throw new EmployeeValidationException(
+          String.format("Change limit must be between 1 and %d.", MAX_CHANGES));
+    }
+    if (waitMs < 0 || waitMs > maxWaitMs) {
+      throw new EmployeeValidationException(
+          String.format("Change wait must be between 0 and %d ms.", maxWaitMs));
+    }
+
+    boolean otherEpoch = epoch != null && !epoch.equals(employeeChangeFeed.getEpoch());
+    if (since == null || waitMs == 0 || otherEpoch) {
+      // a zero timeout would mean no timeout at all, and no change could make changes from
+      // another epoch available, so answer straight away
+      DeferredResult<ResponseEntity<EmployeeChanges>> result = new DeferredResult<>();
+      result.setResult(since == null ? start() : read(since, epoch, limit));
+      return result;
+    }
+    DeferredResult<ResponseEntity<EmployeeChanges>> result =
+        new DeferredResult<>(waitMs, () -> read(since, epoch, limit));
+    CompletableFuture<Void> changed = employeeChangeFeed.awaitChangeAfter(since);
+    changed.thenRunAsync(() -> result.setResult(read(since, epoch, limit)),
+        applicationTaskExecutor);
+    result.onCompletion(() -> employeeChangeFeed.cancel(changed));
+    return result;
+  }
+
+  private ResponseEntity<EmployeeChanges> start() {
+    return ResponseEntity.ok(new EmployeeChanges(employeeChangeFeed.getEpoch(),
+        employeeChangeFeed.getLatest(), false, List.of()));
+  }
+
+  private ResponseEntity<EmployeeChanges> read(long since, String epoch, int limit) {
+    String currentEpoch = employeeChangeFeed.getEpoch();
+    // read before the changes, so a client resyncing from it can only replay changes it has seen
+    long latest = employeeChangeFeed.getLatest();
+    Optional<List<EmployeeChange>> changes = epoch == null || epoch.equals(currentEpoch)
+        ? employeeChangeFeed.getChangesAfter(since, limit)
+        : Optional.empty();
+    if (changes.isEmpty()) {
+      log.debug("Changes since {} in epoch {} are no longer retained.", since, epoch);
+      return ResponseEntity.status(HttpStatus.GONE)
+          .body(new EmployeeChanges(currentEpoch, latest, true, List.of()));
+    }
+    List<EmployeeChange> after = changes.get();
+    long next = after.isEmpty() ? since : after.get(after.size() - 1).getSequence();
+    log.debug("Found {} changes since {}.", after.size(), since);
+    return ResponseEntity.ok(new EmployeeChanges(currentEpoch, next, false, after));
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.rqchallenge.employees.coalescing;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import com.example.rqchallenge.datasource.ReadRouting;
+import com.google.common.base.Throwables;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces concurrent identical reads: the first caller for a key runs the query, and callers
+ * with the same key that arrive while it is running wait for it and share its result or failure.
+ * Nothing is kept once the query finishes, so the next caller runs it again.
+ *
+ * <p>
+ * A caller can get a result computed from a query that started just before its own request, which
+ * is no staler than what it would have read had it arrived a moment earlier. Reads pinned to the
+ * primary only join other pinned reads, so a client that has just written never gets a result
+ * read from a replica that may not have its write yet.
+ *
+ * @param <K> the type of the keys that identify identical reads
+ * @param <V> the type of the query results
+ */
+public class SingleFlight<K, V> {
+
+  public static final String CALLS_METRIC = "employees.coalescing.calls";
+
+  private static final Object NO_KEY = new Object();
+
+  private final ConcurrentMap<List<Object>, CompletableFuture<V>> inFlight =
+      new ConcurrentHashMap<>();
+
+  private final Counter executed;
+
+  private final Counter coalesced;
+
+  /**
+   * @param operation the name of the read, used to tag its metrics
+   * @param meterRegistry the registry for the executed and coalesced call counts
+   */
+  public SingleFlight(String operation, MeterRegistry meterRegistry) {
+    executed = callCounter(operation, "executed", meterRegistry);
+    coalesced = callCounter(operation, "coalesced", meterRegistry);
+  }
+
+  /**
+   * @param key identifies the read; calls with equal keys are coalesced
+   * @param query runs the read
+   * @return the result of the query run by this call or the one it joined
+   */
+  public V execute(K key, Supplier<V> query) {
+    return run(key, query);
+  }
+
+  /**
+   * @param query runs a read that takes no arguments, so every concurrent call is identical
+   * @return the result of the query run by this call or the one it joined
+   */
+  public V execute(Supplier<V> query) {
+    return run(NO_KEY, query);
+  }
+
+  private V run(Object key, Supplier<V> query) {
+    List<Object> flightKey = List.of(key, ReadRouting.isPinnedToPrimary());
+    CompletableFuture<V> flight = new CompletableFuture<>();
+    CompletableFuture<V> leader = inFlight.putIfAbsent(flightKey, flight);
+    if (leader != null) {
+      coalesced.increment();
+      return join(leader);
+    }
+    executed.increment();
+    try {
+      V result = query.get();
+      flight.complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(flightKey, flight);
+    }
+  }
+
+  private static <V> V join(CompletableFuture<V> flight) {
+    try {
+      return flight.join();
+    } catch (CompletionException e) {
+      // surface the query's failure as the caller that ran it saw it
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
+  private static Counter callCounter(String operation, String outcome,
+      MeterRegistry meterRegistry) {
+    return Counter.builder(CALLS_METRIC)
+        .description("Reads that ran a query, or joined one already running for the same key")
+        .tag("operation", operation).tag("outcome", outcome).register(meterRegistry);
+  }
+}
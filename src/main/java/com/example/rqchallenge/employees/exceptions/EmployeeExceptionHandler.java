@@ -1,20 +1,55 @@
 package com.example.rqchallenge.employees.exceptions;
 
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @ControllerAdvice
 public class EmployeeExceptionHandler {
 
+  static final String ERRORS_METRIC = "employees.errors";
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private Counter validationErrors;
+
+  private Counter notFoundErrors;
+
+  @PostConstruct
+  void init() {
+    // registered up front so the rates read as zero rather than missing before the first error
+    validationErrors = errorCounter(EmployeeValidationException.class);
+    notFoundErrors = errorCounter(EmployeeNotFoundException.class);
+  }
+
   @ExceptionHandler(EmployeeValidationException.class)
   public ResponseEntity<String> handleException(EmployeeValidationException e) {
+    validationErrors.increment();
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
   }
 
+  @ExceptionHandler(HttpMessageNotReadableException.class)
+  public ResponseEntity<String> handleException(HttpMessageNotReadableException e) {
+    // malformed JSON, as opposed to well-formed JSON with invalid employee attributes
+    validationErrors.increment();
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Cannot read request body.");
+  }
+
   @ExceptionHandler(EmployeeNotFoundException.class)
   public ResponseEntity<String> handleException(EmployeeNotFoundException e) {
+    notFoundErrors.increment();
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
   }
+
+  private Counter errorCounter(Class<? extends Exception> exception) {
+    return Counter.builder(ERRORS_METRIC).tag("exception", exception.getSimpleName())
+        .description("Employee requests rejected by exception type").register(meterRegistry);
+  }
 }
@@ -5,6 +5,7 @@ public class EmployeeNotFoundException extends Exception {
   private static final long serialVersionUID = -2338192372172234829L;
 
   public EmployeeNotFoundException(String employeeIdentifier) {
-    super(String.format("Could not find employee %s.", employeeIdentifier));
+    // this is an expected outcome reported to the client, so skip capturing a stack trace
+    super(String.format("Could not find employee %s.", employeeIdentifier), null, false, false);
   }
 }
@@ -0,0 +1,406 @@
+package com.example.rqchallenge.employees.index;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.SalarySummary;
+import com.example.rqchallenge.domain.TopEarner;
+import lombok.Value;
+
+/**
+ * A columnar copy of the employee table held off-heap: salaries and dictionary-encoded names as
+ * ints, and ages as unsigned bytes. Filters and aggregates scan the columns in parallel chunks
+ * without creating an object per employee.
+ *
+ * <p>
+ * Rows of deleted employees are reused by later creates, and a name's dictionary entry is
+ * released once no row refers to it.
+ */
+@Component
+@ConditionalOnProperty(name = "employees.columnar.enabled", havingValue = "true")
+public class EmployeeColumns implements EmployeeIndex {
+
+  // unbounded filters span the sentinels, so they include employees without a salary or age
+  static final int NO_SALARY = Integer.MIN_VALUE;
+
+  static final int NO_AGE = 0xFF;
+
+  private static final int FREE_ROW = -1;
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  static final int CHUNK_SIZE = 1 << 16;
+
+  /**
+   * Employees whose salary is within [minSalary, maxSalary] and age within [minAge, maxAge].
+   */
+  @Value
+  public static class Filter {
+    int minSalary;
+    int maxSalary;
+    int minAge;
+    int maxAge;
+
+    /**
+     * @param minSalary the lowest salary to include, or null for no lower bound
+     * @param maxSalary the highest salary to include, or null for no upper bound
+     * @param minAge the lowest age to include, or null for no lower bound
+     * @param maxAge the highest age to include, or null for no upper bound
+     * @return the filter; employees without a salary or age only match if it is unbounded
+     */
+    public static Filter of(Integer minSalary, Integer maxSalary, Integer minAge,
+        Integer maxAge) {
+      boolean salaryBounded = minSalary != null || maxSalary != null;
+      boolean ageBounded = minAge != null || maxAge != null;
+      return new Filter(
+          minSalary != null ? minSalary : salaryBounded ? Integer.MIN_VALUE + 1 : NO_SALARY,
+          maxSalary != null ? maxSalary : Integer.MAX_VALUE,
+          minAge != null ? minAge : 0,
+          maxAge != null ? maxAge : ageBounded ? NO_AGE - 1 : NO_AGE);
+    }
+  }
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<String, Integer> rowsById = new HashMap<>();
+
+  private final Deque<Integer> freeRows = new ArrayDeque<>();
+
+  private final Map<String, Integer> codesByName = new HashMap<>();
+
+  private final List<String> names = new ArrayList<>();
+
+  private final Deque<Integer> freeCodes = new ArrayDeque<>();
+
+  private int[] nameReferences = new int[INITIAL_CAPACITY];
+
+  // rows below this are in use or free; rows at and above it have never been used
+  private int rowLimit;
+
+  private IntBuffer salaries;
+
+  private IntBuffer nameCodes;
+
+  private ByteBuffer ages;
+
+  public EmployeeColumns() {
+    allocate(INITIAL_CAPACITY);
+  }
+
+  @Override
+  public void add(Employee employee) {
+    lock.writeLock().lock();
+    try {
+      Integer row = rowsById.get(employee.getId());
+      if (row == null) {
+        row = freeRows.isEmpty() ? nextRow() : freeRows.pop();
+        rowsById.put(employee.getId(), row);
+      } else {
+        releaseName(nameCodes.get(row));
+      }
+      salaries.put(row, employee.getSalary() != null ? employee.getSalary() : NO_SALARY);
+      nameCodes.put(row, encodeName(employee.getName()));
+      ages.put(row, (byte) encodeAge(employee.getAge()));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void remove(Employee employee) {
+    lock.writeLock().lock();
+    try {
+      Integer row = rowsById.remove(employee.getId());
+      if (row != null) {
+        releaseName(nameCodes.get(row));
+        nameCodes.put(row, FREE_ROW);
+        freeRows.push(row);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      rowsById.clear();
+      freeRows.clear();
+      codesByName.clear();
+      names.clear();
+      freeCodes.clear();
+      nameReferences = new int[INITIAL_CAPACITY];
+      rowLimit = 0;
+      allocate(INITIAL_CAPACITY);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param filter the employees to include
+   * @return the count of matching employees and the sum, min, max and average of their salaries
+   */
+  public SalarySummary summarize(Filter filter) {
+    lock.readLock().lock();
+    try {
+      Summary summary = chunks().mapToObj(chunk -> summarizeChunk(filter, chunk))
+          .reduce(Summary::merge).orElseGet(Summary::new);
+      return summary.toSalarySummary();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @param filter the employees to include
+   * @param limit the maximum number of employees to return
+   * @return the names and salaries of the highest earning matching employees, highest first
+   */
+  public List<TopEarner> getTopEarners(Filter filter, int limit) {
+    lock.readLock().lock();
+    try {
+      TopRows top = chunks().mapToObj(chunk -> topOfChunk(filter, chunk, limit))
+          .reduce(this::mergeTopRows).orElseGet(() -> new TopRows(limit));
+      int[] rows = top.drainHighestFirst();
+      List<TopEarner> earners = new ArrayList<>(rows.length);
+      for (int row : rows) {
+        earners.add(new TopEarner(names.get(nameCodes.get(row)), salaries.get(row)));
+      }
+      return earners;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return the number of employees in the columns
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return rowsById.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return the chunk numbers to scan, in parallel if there is more than one
+   */
+  private IntStream chunks() {
+    int chunkCount = (rowLimit + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    IntStream chunks = IntStream.range(0, chunkCount);
+    return chunkCount > 1 ? chunks.parallel() : chunks;
+  }
+
+  private Summary summarizeChunk(Filter filter, int chunk) {
+    Summary summary = new Summary();
+    int end = Math.min(rowLimit, (chunk + 1) * CHUNK_SIZE);
+    for (int row = chunk * CHUNK_SIZE; row < end; row++) {
+      if (matches(filter, row)) {
+        summary.add(salaries.get(row));
+      }
+    }
+    return summary;
+  }
+
+  private TopRows topOfChunk(Filter filter, int chunk, int limit) {
+    TopRows top = new TopRows(limit);
+    int end = Math.min(rowLimit, (chunk + 1) * CHUNK_SIZE);
+    for (int row = chunk * CHUNK_SIZE; row < end; row++) {
+      if (matches(filter, row) && salaries.get(row) != NO_SALARY) {
+        top.offer(row);
+      }
+    }
+    return top;
+  }
+
+  private TopRows mergeTopRows(TopRows left, TopRows right) {
+    for (int i = 0; i < right.size; i++) {
+      left.offer(right.rows[i]);
+    }
+    return left;
+  }
+
+  private boolean matches(Filter filter, int row) {
+    if (nameCodes.get(row) == FREE_ROW) {
+      return false;
+    }
+    int salary = salaries.get(row);
+    int age = Byte.toUnsignedInt(ages.get(row));
+    return salary >= filter.getMinSalary() && salary <= filter.getMaxSalary()
+        && age >= filter.getMinAge() && age <= filter.getMaxAge();
+  }
+
+  private int nextRow() {
+    if (rowLimit == salaries.capacity()) {
+      IntBuffer oldSalaries = salaries;
+      IntBuffer oldNameCodes = nameCodes;
+      ByteBuffer oldAges = ages;
+      allocate(rowLimit * 2);
+      salaries.put(oldSalaries.rewind());
+      nameCodes.put(oldNameCodes.rewind());
+      ages.put(oldAges.rewind());
+    }
+    return rowLimit++;
+  }
+
+  private void allocate(int capacity) {
+    salaries = ByteBuffer.allocateDirect(capacity * Integer.BYTES).asIntBuffer();
+    nameCodes = ByteBuffer.allocateDirect(capacity * Integer.BYTES).asIntBuffer();
+    ages = ByteBuffer.allocateDirect(capacity);
+  }
+
+  private int encodeName(String name) {
+    Integer code = codesByName.get(name);
+    if (code == null) {
+      if (freeCodes.isEmpty()) {
+        code = names.size();
+        names.add(name);
+        if (code == nameReferences.length) {
+          nameReferences = Arrays.copyOf(nameReferences, code * 2);
+        }
+      } else {
+        code = freeCodes.pop();
+        names.set(code, name);
+      }
+      codesByName.put(name, code);
+    }
+    nameReferences[code]++;
+    return code;
+  }
+
+  private void releaseName(int code) {
+    if (--nameReferences[code] == 0) {
+      codesByName.remove(names.get(code));
+      names.set(code, null);
+      freeCodes.push(code);
+    }
+  }
+
+  private static int encodeAge(Integer age) {
+    // valid ages are 0 to 150, so anything that doesn't fit in a byte is treated as unknown
+    return age != null && age >= 0 && age < NO_AGE ? age : NO_AGE;
+  }
+
+  private static class Summary {
+    long count;
+    long salaryCount;
+    long sum;
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+
+    void add(int salary) {
+      count++;
+      if (salary != NO_SALARY) {
+        salaryCount++;
+        sum += salary;
+        min = Math.min(min, salary);
+        max = Math.max(max, salary);
+      }
+    }
+
+    Summary merge(Summary other) {
+      count += other.count;
+      salaryCount += other.salaryCount;
+      sum += other.sum;
+      min = Math.min(min, other.min);
+      max = Math.max(max, other.max);
+      return this;
+    }
+
+    SalarySummary toSalarySummary() {
+      return salaryCount == 0 ? new SalarySummary(count, 0, null, null, null)
+          : new SalarySummary(count, sum, min, max, (double) sum / salaryCount);
+    }
+  }
+
+  /**
+   * A bounded min-heap of rows by salary, holding the highest salaries offered.
+   */
+  private class TopRows {
+    final int[] rows;
+    int size;
+
+    TopRows(int limit) {
+      rows = new int[limit];
+    }
+
+    void offer(int row) {
+      if (size < rows.length) {
+        rows[size] = row;
+        siftUp(size++);
+      } else if (size > 0 && salaries.get(row) > salaries.get(rows[0])) {
+        rows[0] = row;
+        siftDown(0, size);
+      }
+    }
+
+    /**
+     * Sorts the heap in place, leaving it empty.
+     */
+    int[] drainHighestFirst() {
+      int count = size;
+      // each pass moves the lowest remaining salary to the end
+      for (int end = size - 1; end > 0; end--) {
+        swap(0, end);
+        siftDown(0, end);
+      }
+      size = 0;
+      return Arrays.copyOf(rows, count);
+    }
+
+    private void siftUp(int index) {
+      while (index > 0) {
+        int parent = (index - 1) / 2;
+        if (salary(index) >= salary(parent)) {
+          return;
+        }
+        swap(index, parent);
+        index = parent;
+      }
+    }
+
+    private void siftDown(int index, int end) {
+      while (true) {
+        int lowest = index;
+        int left = 2 * index + 1;
+        int right = left + 1;
+        if (left < end && salary(left) < salary(lowest)) {
+          lowest = left;
+        }
+        if (right < end && salary(right) < salary(lowest)) {
+          lowest = right;
+        }
+        if (lowest == index) {
+          return;
+        }
+        swap(index, lowest);
+        index = lowest;
+      }
+    }
+
+    private int salary(int index) {
+      return salaries.get(rows[index]);
+    }
+
+    private void swap(int i, int j) {
+      int row = rows[i];
+      rows[i] = rows[j];
+      rows[j] = row;
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.rqchallenge.employees.index;
+
+import com.example.rqchallenge.domain.Employee;
+
+/**
+ * An in-memory view of the employee table that is kept up to date as employees are created and
+ * deleted. Implementations must be thread safe and both mutations must be idempotent, since an
+ * employee can be re-added while the indexes are being rebuilt.
+ */
+public interface EmployeeIndex {
+
+  /**
+   * @param employee the employee that was created
+   */
+  void add(Employee employee);
+
+  /**
+   * @param employee the employee that was deleted
+   */
+  void remove(Employee employee);
+
+  /**
+   * Removes every employee, ahead of a rebuild.
+   */
+  void clear();
+}
@@ -0,0 +1,193 @@
+package com.example.rqchallenge.employees.index;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.rqchallenge.datasource.ReadRouting;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.EmployeeSalary;
+import com.example.rqchallenge.employees.EmployeePersistenceContext;
+import com.example.rqchallenge.employees.EmployeeRepository;
+import com.example.rqchallenge.employees.store.EmployeeStore;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps every {@link EmployeeIndex} in step with the repository. Indexes are loaded from the
+ * repository at startup, or in the background once the application is ready with
+ * employees.indexes.load-in-background, and updated by the handler after each create and delete.
+ */
+@Component
+@Slf4j
+public class EmployeeIndexes {
+
+  private static final int VERIFIED_TOP_SALARIES = 10;
+
+  @Autowired
+  private List<EmployeeIndex> indexes;
+
+  @Autowired
+  private SalaryIndex salaryIndex;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private EmployeePersistenceContext persistenceContext;
+
+  @Autowired
+  private EmployeeStore employeeStore;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  // mutations share the read lock since the indexes are concurrent; a rebuild excludes them all
+  private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+  @Value("${employees.indexes.load-in-background:false}")
+  private boolean loadInBackground;
+
+  private volatile boolean loaded;
+
+  @PostConstruct
+  void init() {
+    if (!loadInBackground) {
+      rebuild();
+    }
+  }
+
+  /**
+   * With employees.indexes.load-in-background, loads the indexes on a background thread. Until
+   * they are loaded, {@link #isRebuilding()} is true and the handlers fall back to the database or
+   * answer service unavailable.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadInBackground() {
+    if (!loadInBackground) {
+      return;
+    }
+    Thread loader = new Thread(() -> {
+      try {
+        rebuild();
+      } catch (RuntimeException e) {
+        // the scheduled verification retries the load
+        log.error("Failed to load the employee indexes.", e);
+      }
+    }, "employee-indexes-load");
+    loader.setDaemon(true);
+    loader.start();
+  }
+
+  /**
+   * Clears every index and reloads it from the repository.
+   */
+  public void rebuild() {
+    TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+    rebuildLock.writeLock().lock();
+    try {
+      // flushed under the lock, so a write that misses the flush waits and is indexed after
+      employeeStore.flush();
+      indexes.forEach(EmployeeIndex::clear);
+      // a lagging replica would leave the indexes missing writes until the next rebuild
+      long count = ReadRouting.onPrimary(() -> readOnlyTransaction.execute(status -> {
+        long loaded = 0;
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+          for (Employee employee : (Iterable<Employee>) employees::iterator) {
+            addToIndexes(employee);
+            persistenceContext.detach(employee);
+            loaded++;
+          }
+        }
+        return loaded;
+      }));
+      loaded = true;
+      log.info("Rebuilt {} employee indexes from {} employees.", indexes.size(), count);
+    } finally {
+      rebuildLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return true until the indexes are first loaded and while they are cleared and being reloaded,
+   *         when they are incomplete
+   */
+  public boolean isRebuilding() {
+    return !loaded || rebuildLock.isWriteLocked();
+  }
+
+  /**
+   * @param employee the employee that was created
+   */
+  public void add(Employee employee) {
+    rebuildLock.readLock().lock();
+    try {
+      addToIndexes(employee);
+    } finally {
+      rebuildLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @param employee the employee that was deleted
+   */
+  public void remove(Employee employee) {
+    rebuildLock.readLock().lock();
+    try {
+      indexes.forEach(index -> index.remove(employee));
+    } finally {
+      rebuildLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Compares the salary index with the database and rebuilds every index if they have drifted
+   * apart, e.g. because the table was modified outside of this service.
+   *
+   * @return true if the salary index matched the database
+   */
+  @Scheduled(fixedDelayString = "${employees.salary-index.verify-interval-ms:300000}",
+      initialDelayString = "${employees.salary-index.verify-interval-ms:300000}")
+  public boolean verifySalaryIndex() {
+    // a create or delete between reading the database and the index, or replication lag, would
+    // look like drift, so the database is read on the primary and only a mismatch still there
+    // on a second look rebuilds; indexes that never loaded are rebuilt even if they happen to
+    // match, since an empty index matches an empty table
+    if (loaded && ReadRouting.onPrimary(() -> matchesDatabase(false) || matchesDatabase(true))) {
+      return true;
+    }
+    rebuild();
+    return false;
+  }
+
+  private boolean matchesDatabase(boolean warn) {
+    employeeStore.flush();
+    long expectedSize = employeeRepository.count();
+    List<Integer> expectedTop = employeeRepository.findFirst10ByOrderBySalaryDesc().stream()
+        .map(EmployeeSalary::getSalary).collect(Collectors.toList());
+    // compare salaries rather than names since ties can be ordered differently
+    List<Integer> actualTop = salaryIndex.getTopSalaries(VERIFIED_TOP_SALARIES);
+    long actualSize = salaryIndex.size();
+    if (expectedSize == actualSize && expectedTop.equals(actualTop)) {
+      return true;
+    }
+    if (warn) {
+      log.warn("Salary index is out of date ({} of {} employees, top salaries {} instead of {}).",
+          actualSize, expectedSize, actualTop, expectedTop);
+    }
+    return false;
+  }
+
+  private void addToIndexes(Employee employee) {
+    indexes.forEach(index -> index.add(employee));
+  }
+}
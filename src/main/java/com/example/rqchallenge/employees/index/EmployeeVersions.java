@@ -0,0 +1,58 @@
+package com.example.rqchallenge.employees.index;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import com.example.rqchallenge.domain.Employee;
+
+/**
+ * Versions for the employee table and for each employee, used as ETags. The table version goes up
+ * with every create and delete. Each employee keeps the table version it was added at, which is
+ * enough because employees are never updated in place.
+ */
+@Component
+public class EmployeeVersions implements EmployeeIndex {
+
+  // versions restart with the service, so tags from a previous run must not match
+  private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+  private final AtomicLong tableVersion = new AtomicLong();
+
+  private final ConcurrentMap<String, Long> versionsById = new ConcurrentHashMap<>();
+
+  @Override
+  public void add(Employee employee) {
+    versionsById.put(employee.getId(), tableVersion.incrementAndGet());
+  }
+
+  @Override
+  public void remove(Employee employee) {
+    versionsById.remove(employee.getId());
+    tableVersion.incrementAndGet();
+  }
+
+  @Override
+  public void clear() {
+    versionsById.clear();
+    tableVersion.incrementAndGet();
+  }
+
+  /**
+   * @return a tag that changes whenever any employee is created or deleted
+   */
+  public String getTableTag() {
+    return epoch + "-" + tableVersion.get();
+  }
+
+  /**
+   * @param id the employee ID
+   * @return a tag that changes if the employee is deleted and recreated, or empty if there is no
+   *         employee with the provided ID
+   */
+  public Optional<String> getTag(String id) {
+    Long version = versionsById.get(id);
+    return version == null ? Optional.empty() : Optional.of(epoch + "-" + id + "-" + version);
+  }
+}
@@ -0,0 +1,156 @@
+package com.example.rqchallenge.employees.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.stereotype.Component;
+import com.example.rqchallenge.domain.Employee;
+import lombok.Value;
+
+/**
+ * A trigram inverted index over lowercase employee names for case-insensitive substring search.
+ * Every substring of three or more characters contains at least one trigram, so the candidates
+ * for a query are the employees listed under its rarest trigram. Shorter queries fall back to
+ * scanning the indexed names, which is still far cheaper than a table scan.
+ */
+@Component
+public class NameSearchIndex implements EmployeeIndex {
+
+  private static final int GRAM_LENGTH = 3;
+
+  private static final Comparator<Match> MOST_RELEVANT_FIRST = Comparator
+      .<Match>comparingInt(Match::getRank).thenComparingInt(Match::getNameLength)
+      .thenComparing(Match::getId);
+
+  private final ConcurrentMap<String, String> namesById = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<String, Set<String>> idsByTrigram = new ConcurrentHashMap<>();
+
+  @Override
+  public void add(Employee employee) {
+    if (employee.getName() == null) {
+      return;
+    }
+    String id = employee.getId();
+    String name = employee.getName().toLowerCase(Locale.ROOT);
+    String previous = namesById.put(id, name);
+    if (previous != null && !previous.equals(name)) {
+      removePostings(id, previous);
+    }
+    // postings are added and removed inside compute so an emptied set can't swallow an addition
+    for (String trigram : trigrams(name)) {
+      idsByTrigram.compute(trigram, (key, ids) -> {
+        Set<String> postings = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+        postings.add(id);
+        return postings;
+      });
+    }
+  }
+
+  @Override
+  public void remove(Employee employee) {
+    String name = namesById.remove(employee.getId());
+    if (name != null) {
+      removePostings(employee.getId(), name);
+    }
+  }
+
+  @Override
+  public void clear() {
+    namesById.clear();
+    idsByTrigram.clear();
+  }
+
+  /**
+   * Results are ranked exact matches first, then names starting with the search string, then
+   * names with a word starting with it, then any other match. Shorter names rank higher within
+   * each group.
+   *
+   * @param searchString the partial name search input (case-insensitive)
+   * @param limit the maximum number of IDs to return
+   * @return the IDs of the most relevant employees whose name contains the search string
+   */
+  public List<String> search(String searchString, int limit) {
+    String needle = searchString.toLowerCase(Locale.ROOT);
+    // the head of the queue is the least relevant match so far, evicted once the limit is hit
+    PriorityQueue<Match> best = new PriorityQueue<>(MOST_RELEVANT_FIRST.reversed());
+    for (String id : findCandidates(needle)) {
+      String name = namesById.get(id);
+      int position = name == null ? -1 : name.indexOf(needle);
+      if (position < 0) {
+        continue;
+      }
+      best.add(new Match(id, rank(name, needle, position), name.length()));
+      if (best.size() > limit) {
+        best.poll();
+      }
+    }
+    List<Match> matches = new ArrayList<>(best);
+    matches.sort(MOST_RELEVANT_FIRST);
+    List<String> ids = new ArrayList<>(matches.size());
+    matches.forEach(match -> ids.add(match.getId()));
+    return ids;
+  }
+
+  private Collection<String> findCandidates(String needle) {
+    if (needle.length() < GRAM_LENGTH) {
+      return namesById.keySet();
+    }
+    Collection<String> rarest = null;
+    for (String trigram : trigrams(needle)) {
+      Set<String> ids = idsByTrigram.get(trigram);
+      if (ids == null) {
+        return Collections.emptySet();
+      }
+      if (rarest == null || ids.size() < rarest.size()) {
+        rarest = ids;
+      }
+    }
+    return rarest;
+  }
+
+  private void removePostings(String id, String name) {
+    for (String trigram : trigrams(name)) {
+      idsByTrigram.computeIfPresent(trigram, (key, ids) -> {
+        ids.remove(id);
+        return ids.isEmpty() ? null : ids;
+      });
+    }
+  }
+
+  private static Set<String> trigrams(String text) {
+    Set<String> trigrams = new HashSet<>();
+    for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+      trigrams.add(text.substring(i, i + GRAM_LENGTH));
+    }
+    return trigrams;
+  }
+
+  private static int rank(String name, String needle, int position) {
+    if (position == 0) {
+      return name.length() == needle.length() ? 0 : 1;
+    }
+    // indexOf only finds the first occurrence, a later one may still start a word
+    for (int i = position; i > 0; i = name.indexOf(needle, i + 1)) {
+      if (!Character.isLetterOrDigit(name.charAt(i - 1))) {
+        return 2;
+      }
+    }
+    return 3;
+  }
+
+  @Value
+  private static class Match {
+    String id;
+    int rank;
+    int nameLength;
+  }
+}
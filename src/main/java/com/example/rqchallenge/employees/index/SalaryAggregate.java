@@ -0,0 +1,151 @@
+package com.example.rqchallenge.employees.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.example.rqchallenge.domain.SalaryStats;
+import com.example.rqchallenge.domain.SalaryStats.Bucket;
+
+/**
+ * Salary count, sum, quantile sketch and histogram, updated in constant time as salaries are added
+ * and removed. The sketch counts salaries in logarithmically sized buckets, so any quantile is
+ * within {@link #RELATIVE_ACCURACY} of the exact value. Since it only holds counts, removals are
+ * exact and two sketches merge by adding their counts.
+ */
+class SalaryAggregate {
+
+  static final double RELATIVE_ACCURACY = 0.01;
+
+  static final int[] HISTOGRAM_BOUNDS =
+      {25_000, 50_000, 75_000, 100_000, 150_000, 200_000, 300_000};
+
+  private static final double[] PERCENTILES = {50, 75, 90, 95, 99};
+
+  private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+
+  private static final double LOG_GAMMA = Math.log(GAMMA);
+
+  // salaries are ints, so about 1,100 buckets cover every positive salary
+  private static final int SKETCH_BUCKETS = sketchBucketOf(Integer.MAX_VALUE) + 1;
+
+  private long count;
+
+  private long sum;
+
+  // zero has no logarithm, so it is counted outside the sketch
+  private long zeroCount;
+
+  private final long[] sketch = new long[SKETCH_BUCKETS];
+
+  private final long[] histogram = new long[HISTOGRAM_BOUNDS.length + 1];
+
+  /**
+   * @param salary the salary to count; null salaries are ignored
+   */
+  synchronized void add(Integer salary) {
+    update(salary, 1);
+  }
+
+  /**
+   * @param salary a previously added salary; null salaries are ignored
+   */
+  synchronized void remove(Integer salary) {
+    update(salary, -1);
+  }
+
+  synchronized void clear() {
+    count = 0;
+    sum = 0;
+    zeroCount = 0;
+    Arrays.fill(sketch, 0);
+    Arrays.fill(histogram, 0);
+  }
+
+  /**
+   * @param other the aggregate whose salaries are added to this one
+   */
+  void merge(SalaryAggregate other) {
+    long[] otherTotals;
+    long[] otherSketch;
+    long[] otherHistogram;
+    // copied first so the two locks are never held together
+    synchronized (other) {
+      otherTotals = new long[] {other.count, other.sum, other.zeroCount};
+      otherSketch = other.sketch.clone();
+      otherHistogram = other.histogram.clone();
+    }
+    synchronized (this) {
+      count += otherTotals[0];
+      sum += otherTotals[1];
+      zeroCount += otherTotals[2];
+      for (int i = 0; i < sketch.length; i++) {
+        sketch[i] += otherSketch[i];
+      }
+      for (int i = 0; i < histogram.length; i++) {
+        histogram[i] += otherHistogram[i];
+      }
+    }
+  }
+
+  /**
+   * @return the count, sum, average, percentiles and histogram; min and max are left empty
+   */
+  synchronized SalaryStats toStats() {
+    Map<String, Integer> percentiles = new LinkedHashMap<>();
+    if (count > 0) {
+      for (double percentile : PERCENTILES) {
+        percentiles.put(String.format("p%.0f", percentile), quantile(percentile / 100));
+      }
+    }
+    List<Bucket> buckets = new ArrayList<>(histogram.length);
+    for (int i = 0; i < histogram.length; i++) {
+      Integer from = i == 0 ? null : HISTOGRAM_BOUNDS[i - 1];
+      Integer to = i == HISTOGRAM_BOUNDS.length ? null : HISTOGRAM_BOUNDS[i];
+      buckets.add(new Bucket(from, to, histogram[i]));
+    }
+    Double average = count == 0 ? null : (double) sum / count;
+    return new SalaryStats(count, sum, null, null, average, percentiles, buckets);
+  }
+
+  private int quantile(double quantile) {
+    long rank = (long) (quantile * (count - 1));
+    long seen = zeroCount;
+    if (rank < seen) {
+      return 0;
+    }
+    for (int i = 0; i < sketch.length; i++) {
+      seen += sketch[i];
+      if (rank < seen) {
+        // the midpoint of (GAMMA^(i-1), GAMMA^i] in relative terms
+        return (int) Math.round(2 * Math.pow(GAMMA, i) / (GAMMA + 1));
+      }
+    }
+    throw new IllegalStateException("Salary sketch counts don't add up to " + count);
+  }
+
+  private void update(Integer salary, int delta) {
+    if (salary == null) {
+      return;
+    }
+    count += delta;
+    sum += (long) salary * delta;
+    if (salary == 0) {
+      zeroCount += delta;
+    } else {
+      sketch[sketchBucketOf(salary)] += delta;
+    }
+    histogram[histogramBucketOf(salary)] += delta;
+  }
+
+  private static int sketchBucketOf(int salary) {
+    return (int) Math.ceil(Math.log(salary) / LOG_GAMMA);
+  }
+
+  private static int histogramBucketOf(int salary) {
+    int index = Arrays.binarySearch(HISTOGRAM_BOUNDS, salary);
+    // a salary equal to a bound belongs to the bucket that starts there
+    return index >= 0 ? index + 1 : -index - 1;
+  }
+}
@@ -0,0 +1,139 @@
+package com.example.rqchallenge.employees.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.SalaryStats;
+import lombok.Value;
+
+/**
+ * Employees ordered by salary, highest first. Employees without a salary sort last, matching the
+ * database ordering for descending salary queries. Salary statistics are maintained alongside.
+ */
+@Component
+public class SalaryIndex implements EmployeeIndex {
+
+  private static final Comparator<Entry> HIGHEST_SALARY_FIRST = Comparator
+      .<Entry, Integer>comparing(Entry::getSalary,
+          Comparator.nullsLast(Comparator.<Integer>reverseOrder()))
+      .thenComparing(Entry::getId);
+
+  private final ConcurrentSkipListSet<Entry> entries =
+      new ConcurrentSkipListSet<>(HIGHEST_SALARY_FIRST);
+
+  // the skip list is ordered by salary, so removals need the entry that was inserted for the ID
+  private final ConcurrentMap<String, Entry> entriesById = new ConcurrentHashMap<>();
+
+  private final SalaryAggregate aggregate = new SalaryAggregate();
+
+  @Override
+  public void add(Employee employee) {
+    Entry entry = new Entry(employee.getId(), employee.getName(), employee.getSalary());
+    Entry previous = entriesById.put(entry.getId(), entry);
+    if (previous != null) {
+      entries.remove(previous);
+      aggregate.remove(previous.getSalary());
+    }
+    entries.add(entry);
+    aggregate.add(entry.getSalary());
+  }
+
+  @Override
+  public void remove(Employee employee) {
+    Entry entry = entriesById.remove(employee.getId());
+    if (entry != null) {
+      entries.remove(entry);
+      aggregate.remove(entry.getSalary());
+    }
+  }
+
+  @Override
+  public void clear() {
+    entriesById.clear();
+    entries.clear();
+    aggregate.clear();
+  }
+
+  /**
+   * @return the highest salary, or empty if there are no employees with a salary
+   */
+  public Optional<Integer> getHighestSalary() {
+    // first() throws if a concurrent delete empties the set between checking and reading it
+    Iterator<Entry> iterator = entries.iterator();
+    return iterator.hasNext() ? Optional.ofNullable(iterator.next().getSalary())
+        : Optional.empty();
+  }
+
+  /**
+   * @return the lowest salary, or empty if there are no employees with a salary
+   */
+  public Optional<Integer> getLowestSalary() {
+    // employees without a salary are at the tail, so skip past them
+    Iterator<Entry> iterator = entries.descendingIterator();
+    while (iterator.hasNext()) {
+      Integer salary = iterator.next().getSalary();
+      if (salary != null) {
+        return Optional.of(salary);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * @return the count, sum, min, max, average, approximate percentiles and histogram of salaries,
+   *         computed without visiting any employees
+   */
+  public SalaryStats getStats() {
+    SalaryStats stats = aggregate.toStats();
+    stats.setMin(getLowestSalary().orElse(null));
+    stats.setMax(getHighestSalary().orElse(null));
+    return stats;
+  }
+
+  /**
+   * @param limit the maximum number of employees to return
+   * @return the names of the highest earning employees, highest salary first
+   */
+  public List<String> getTopNames(int limit) {
+    return getTop(limit, Entry::getName);
+  }
+
+  /**
+   * @param limit the maximum number of employees to return
+   * @return the salaries of the highest earning employees, highest first
+   */
+  public List<Integer> getTopSalaries(int limit) {
+    return getTop(limit, Entry::getSalary);
+  }
+
+  /**
+   * @return the number of indexed employees
+   */
+  public int size() {
+    return entriesById.size();
+  }
+
+  private <T> List<T> getTop(int limit, Function<Entry, T> attribute) {
+    List<T> top = new ArrayList<>(limit);
+    Iterator<Entry> iterator = entries.iterator();
+    while (top.size() < limit && iterator.hasNext()) {
+      top.add(attribute.apply(iterator.next()));
+    }
+    return top;
+  }
+
+  @Value
+  private static class Entry {
+    String id;
+    String name;
+    Integer salary;
+  }
+}
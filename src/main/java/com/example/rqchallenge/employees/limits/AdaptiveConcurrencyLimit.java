@@ -0,0 +1,106 @@
+package com.example.rqchallenge.employees.limits;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit that follows latency. Each completed request compares its latency with a
+ * long-running average: while latency holds steady the limit grows by about its square root, and
+ * once requests start queueing and latency rises the limit shrinks in proportion, so it backs off
+ * before the connection pool saturates.
+ */
+public class AdaptiveConcurrencyLimit {
+
+  // latency may rise this far above the long-running average before the limit shrinks
+  private static final double TOLERANCE = 1.5;
+
+  // roughly the last 600 requests, so a sustained rise in latency is only slowly accepted
+  private static final double LONG_AVERAGE_WEIGHT = 1.0 / 600;
+
+  private static final double SMOOTHING = 0.2;
+
+  private final int minLimit;
+
+  private final int maxLimit;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private volatile int limit;
+
+  // guarded by this
+  private double estimatedLimit;
+
+  // guarded by this
+  private double longAverageNanos;
+
+  /**
+   * @param initialLimit the limit before any latency has been observed
+   * @param minLimit the lowest the limit will shrink to
+   * @param maxLimit the highest the limit will grow to
+   */
+  public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    limit = (int) estimatedLimit;
+  }
+
+  /**
+   * @return true if the request may proceed, in which case {@link #release} must follow
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * @param latencyNanos how long the request took from {@link #tryAcquire}
+   */
+  public void release(long latencyNanos) {
+    int concurrent = inFlight.getAndDecrement();
+    onSample(latencyNanos, concurrent);
+  }
+
+  /**
+   * @return the current limit
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * @return the number of requests that have acquired and not yet released
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private synchronized void onSample(long latencyNanos, int concurrent) {
+    if (longAverageNanos == 0) {
+      longAverageNanos = latencyNanos;
+    } else {
+      longAverageNanos += (latencyNanos - longAverageNanos) * LONG_AVERAGE_WEIGHT;
+    }
+    if (longAverageNanos > 2.0 * latencyNanos) {
+      // recover quickly once a period of high latency is over
+      longAverageNanos *= 0.95;
+    }
+    double gradient =
+        Math.max(0.5, Math.min(1.0, TOLERANCE * longAverageNanos / Math.max(latencyNanos, 1)));
+    double newLimit = gradient < 1.0 ? estimatedLimit * gradient
+        : estimatedLimit + Math.sqrt(estimatedLimit);
+    if (newLimit > estimatedLimit && concurrent < estimatedLimit / 2) {
+      // a mostly idle limit has no evidence that more concurrency would be safe
+      return;
+    }
+    newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+    estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    limit = (int) estimatedLimit;
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.rqchallenge.employees.limits;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Concurrency limit settings for light and {@link HeavyEndpoint heavy} endpoints. Each endpoint
+ * gets its own limit, starting from its group's initial limit. Heavy endpoints also share a
+ * fixed limit, which should stay below the connection pool size.
+ */
+@Data
+@ConfigurationProperties("employees.concurrency")
+public class ConcurrencyLimitProperties {
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Group {
+    private int initialLimit;
+    private int minLimit;
+    private int maxLimit;
+  }
+
+  private boolean enabled = true;
+  private Group light = new Group(50, 10, 200);
+  private Group heavy = new Group(4, 1, 10);
+  private int heavyGroupLimit = 8;
+  private int retryAfterSeconds = 1;
+}
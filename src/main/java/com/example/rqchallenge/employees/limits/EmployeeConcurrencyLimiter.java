@@ -0,0 +1,142 @@
+package com.example.rqchallenge.employees.limits;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import javax.annotation.PostConstruct;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import com.example.rqchallenge.employees.limits.ConcurrencyLimitProperties.Group;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+
+/**
+ * Limits how many requests each endpoint handles at once, so a burst of full-table reads can't
+ * take every connection and thread from single-employee lookups. Requests over an endpoint's
+ * limit fail fast with 503 and a Retry-After header. Streamed responses hold their permit until
+ * the body has been written.
+ *
+ * <p>
+ * Heavy endpoints also share one fixed limit, taken before their own, which keeps their combined
+ * concurrency below the connection pool size however their individual limits grow.
+ */
+@Component
+public class EmployeeConcurrencyLimiter implements AsyncHandlerInterceptor {
+
+  static final String LIMIT_METRIC = "employees.concurrency.limit";
+
+  static final String REJECTED_METRIC = "employees.concurrency.rejected";
+
+  private static final String PERMIT_ATTRIBUTE =
+      EmployeeConcurrencyLimiter.class.getName() + ".permit";
+
+  private static final Endpoint UNLIMITED = new Endpoint(null, false, null);
+
+  @Autowired
+  private ConcurrencyLimitProperties properties;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private final ConcurrentMap<Method, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+  private Semaphore heavyGroup;
+
+  @PostConstruct
+  void init() {
+    heavyGroup = new Semaphore(properties.getHeavyGroupLimit());
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    // async and error dispatches run under the permit of the original request
+    if (!properties.isEnabled() || request.getDispatcherType() != DispatcherType.REQUEST
+        || !(handler instanceof HandlerMethod)) {
+      return true;
+    }
+    Endpoint endpoint = endpoints.computeIfAbsent(((HandlerMethod) handler).getMethod(),
+        method -> createEndpoint((HandlerMethod) handler));
+    if (endpoint == UNLIMITED) {
+      return true;
+    }
+    Semaphore group = endpoint.isHeavy() ? heavyGroup : null;
+    if (group != null && !group.tryAcquire()) {
+      return reject(endpoint, response);
+    }
+    if (!endpoint.getLimit().tryAcquire()) {
+      if (group != null) {
+        group.release();
+      }
+      return reject(endpoint, response);
+    }
+    request.setAttribute(PERMIT_ATTRIBUTE,
+        new Permit(endpoint.getLimit(), group, System.nanoTime()));
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    // not called for a request that started async processing until its async dispatch completes
+    Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+    if (permit != null) {
+      request.removeAttribute(PERMIT_ATTRIBUTE);
+      permit.getLimit().release(System.nanoTime() - permit.getStartNanos());
+      if (permit.getGroup() != null) {
+        permit.getGroup().release();
+      }
+    }
+  }
+
+  private boolean reject(Endpoint endpoint, HttpServletResponse response) {
+    endpoint.getRejected().increment();
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER,
+        Integer.toString(properties.getRetryAfterSeconds()));
+    return false;
+  }
+
+  private Endpoint createEndpoint(HandlerMethod handler) {
+    if (handler.hasMethodAnnotation(UnlimitedEndpoint.class)) {
+      return UNLIMITED;
+    }
+    boolean heavy = handler.hasMethodAnnotation(HeavyEndpoint.class);
+    Group group = heavy ? properties.getHeavy() : properties.getLight();
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(group.getInitialLimit(),
+        group.getMinLimit(), group.getMaxLimit());
+    String name = handler.getMethod().getName();
+    String groupName = heavy ? "heavy" : "light";
+    Gauge.builder(LIMIT_METRIC, limit, AdaptiveConcurrencyLimit::getLimit)
+        .tag("endpoint", name).tag("group", groupName)
+        .description("Concurrent requests allowed per endpoint").register(meterRegistry);
+    Counter rejected = Counter.builder(REJECTED_METRIC).tag("endpoint", name)
+        .tag("group", groupName).description("Requests shed by the concurrency limit")
+        .register(meterRegistry);
+    return new Endpoint(limit, heavy, rejected);
+  }
+
+  @Value
+  private static class Endpoint {
+    AdaptiveConcurrencyLimit limit;
+    boolean heavy;
+    Counter rejected;
+  }
+
+  @Value
+  private static class Permit {
+    AdaptiveConcurrencyLimit limit;
+    Semaphore group;
+    long startNanos;
+  }
+}
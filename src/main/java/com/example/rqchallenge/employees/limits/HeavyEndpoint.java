@@ -0,0 +1,17 @@
+package com.example.rqchallenge.employees.limits;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint whose cost grows with the size of the table or request, so it is limited with
+ * the heavy group's concurrency settings instead of the light group's.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface HeavyEndpoint {
+}
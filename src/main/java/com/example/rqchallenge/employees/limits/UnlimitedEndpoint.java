@@ -0,0 +1,17 @@
+package com.example.rqchallenge.employees.limits;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint that holds neither a thread nor a connection while it waits, such as a long
+ * poll, so it isn't concurrency limited.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface UnlimitedEndpoint {
+}
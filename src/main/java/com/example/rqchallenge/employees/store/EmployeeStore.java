@@ -0,0 +1,63 @@
+package com.example.rqchallenge.employees.store;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import com.example.rqchallenge.domain.Employee;
+
+/**
+ * Where the handler sends writes, and the reads that must see them as soon as they return. Each
+ * write is published to the change feed once it is committed. Selected by
+ * employees.persistence.mode.
+ */
+public interface EmployeeStore {
+
+  /**
+   * @param employee the new employee
+   */
+  void save(Employee employee);
+
+  /**
+   * @param id the ID of an employee the caller has already found
+   * @return false if the employee was deleted by a concurrent request
+   */
+  boolean delete(String id);
+
+  /**
+   * Inserts the employees in one transaction, returning once it is committed.
+   *
+   * @param employees the new employees
+   */
+  void saveAll(List<Employee> employees);
+
+  /**
+   * Deletes the employees in one transaction, returning once it is committed.
+   *
+   * @param ids the employee IDs
+   * @return the employees that were deleted, in no particular order
+   */
+  List<Employee> deleteAll(Collection<String> ids);
+
+  /**
+   * @param id the employee ID
+   * @return the employee with the provided ID, or empty if there is none
+   */
+  Optional<Employee> findById(String id);
+
+  /**
+   * @return all employees
+   */
+  List<Employee> findAll();
+
+  /**
+   * @param ids the employee IDs
+   * @return the employees with the provided IDs, in no particular order
+   */
+  List<Employee> findAllById(Collection<String> ids);
+
+  /**
+   * Writes anything not yet in the repository to it, for callers that go to the repository
+   * directly.
+   */
+  void flush();
+}
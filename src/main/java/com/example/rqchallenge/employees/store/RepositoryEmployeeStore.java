@@ -0,0 +1,65 @@
+package com.example.rqchallenge.employees.store;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.employees.EmployeeRepository;
+
+/**
+ * Writes straight through to the repository, so each write returns once it is committed.
+ */
+@Component
+@ConditionalOnProperty(name = "employees.persistence.mode", havingValue = "sync",
+    matchIfMissing = true)
+public class RepositoryEmployeeStore implements EmployeeStore {
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private RepositoryWrites repositoryWrites;
+
+  @Override
+  public void save(Employee employee) {
+    repositoryWrites.save(employee);
+  }
+
+  @Override
+  public boolean delete(String id) {
+    return repositoryWrites.delete(id);
+  }
+
+  @Override
+  public void saveAll(List<Employee> employees) {
+    repositoryWrites.saveAll(employees);
+  }
+
+  @Override
+  public List<Employee> deleteAll(Collection<String> ids) {
+    return repositoryWrites.deleteAll(ids);
+  }
+
+  @Override
+  public Optional<Employee> findById(String id) {
+    return employeeRepository.findById(id);
+  }
+
+  @Override
+  public List<Employee> findAll() {
+    return employeeRepository.findAll();
+  }
+
+  @Override
+  public List<Employee> findAllById(Collection<String> ids) {
+    return employeeRepository.findAllById(ids);
+  }
+
+  @Override
+  public void flush() {
+    // nothing is ever pending
+  }
+}
@@ -0,0 +1,123 @@
+package com.example.rqchallenge.employees.store;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.employees.EmployeePersistenceContext;
+import com.example.rqchallenge.employees.EmployeeRepository;
+import com.example.rqchallenge.employees.changes.EmployeeChangeFeed;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Commits writes to the repository and publishes them to the change feed. Each employee's lock is
+ * held from before its write until its change is published, so the changes to an employee are
+ * numbered in the order they were committed.
+ */
+@Component
+class RepositoryWrites {
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private EmployeePersistenceContext persistenceContext;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private EmployeeChangeFeed employeeChangeFeed;
+
+  private final Striped<Lock> locks = Striped.lock(1024);
+
+  private TransactionTemplate writeTransaction;
+
+  @PostConstruct
+  void init() {
+    writeTransaction = new TransactionTemplate(transactionManager);
+  }
+
+  void save(Employee employee) {
+    inOrder(List.of(employee.getId()), () -> {
+      employeeRepository.save(employee);
+      employeeChangeFeed.created(employee);
+      return null;
+    });
+  }
+
+  /**
+   * @return false if there was no employee with the ID
+   */
+  boolean delete(String id) {
+    return inOrder(List.of(id), () -> {
+      boolean deleted = employeeRepository.removeById(id) > 0;
+      if (deleted) {
+        employeeChangeFeed.deleted(id);
+      }
+      return deleted;
+    });
+  }
+
+  /**
+   * Inserts the employees in one transaction.
+   */
+  void saveAll(List<Employee> employees) {
+    inOrder(idsOf(employees), () -> {
+      writeTransaction.executeWithoutResult(status -> {
+        employeeRepository.saveAll(employees);
+        employeeRepository.flush();
+        // the request-scoped persistence context would otherwise hold every inserted employee
+        persistenceContext.detachAll();
+      });
+      employees.forEach(employeeChangeFeed::created);
+      return null;
+    });
+  }
+
+  /**
+   * Deletes the employees that exist in one transaction.
+   *
+   * @return the deleted employees
+   */
+  List<Employee> deleteAll(Collection<String> ids) {
+    return inOrder(ids, () -> {
+      List<Employee> existing = writeTransaction.execute(status -> {
+        List<Employee> found = employeeRepository.findAllById(ids);
+        if (!found.isEmpty()) {
+          employeeRepository.deleteAllByIdInBatch(idsOf(found));
+        }
+        persistenceContext.detachAll();
+        return found;
+      });
+      existing.forEach(employee -> employeeChangeFeed.deleted(employee.getId()));
+      return existing;
+    });
+  }
+
+  /**
+   * Runs a write that commits and then publishes its changes, holding the locks of the IDs it
+   * writes.
+   */
+  <T> T inOrder(Collection<String> ids, Supplier<T> write) {
+    // in stripe order, so writes locking several IDs can't deadlock
+    Iterable<Lock> held = locks.bulkGet(ids);
+    held.forEach(Lock::lock);
+    try {
+      return write.get();
+    } finally {
+      held.forEach(Lock::unlock);
+    }
+  }
+
+  private static List<String> idsOf(Collection<Employee> employees) {
+    return employees.stream().map(Employee::getId).collect(Collectors.toList());
+  }
+}
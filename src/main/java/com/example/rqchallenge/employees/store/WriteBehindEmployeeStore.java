@@ -0,0 +1,473 @@
+package com.example.rqchallenge.employees.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.employees.EmployeePersistenceContext;
+import com.example.rqchallenge.employees.EmployeeRepository;
+import com.example.rqchallenge.employees.changes.EmployeeChangeFeed;
+import com.example.rqchallenge.employees.store.WriteBehindJournal.Write;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies writes in memory and to a local journal, and flushes them to the repository in batches
+ * in the background, so a write returns without waiting for a database commit. Reads through this
+ * store see unflushed writes; reads that go to the repository directly (pages and the stream)
+ * lag by up to one flush interval. Writes left in the journal by a crash are flushed at startup.
+ *
+ * <p>
+ * If a batch fails, its writes are retried one at a time so a single bad write can't hold back
+ * the rest. A write that fails on its own max-attempts times is moved to the journal's dead-letter
+ * file and dropped. While the database can't be reached at all, nothing is counted against the
+ * writes; they wait in the journal.
+ *
+ * <p>
+ * Writes are published to the change feed as their flush commits. A create that is dead-lettered
+ * is published as a delete, since reads showed the employee until then. Bulk writes go straight to
+ * the repository.
+ */
+@Component
+@ConditionalOnProperty(name = "employees.persistence.mode", havingValue = "write-behind")
+@Slf4j
+public class WriteBehindEmployeeStore implements EmployeeStore {
+
+  static final String PENDING_METRIC = "employees.write-behind.pending";
+
+  static final String FLUSHED_METRIC = "employees.write-behind.flushed";
+
+  static final String DEAD_LETTERED_METRIC = "employees.write-behind.dead-lettered";
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private EmployeePersistenceContext persistenceContext;
+
+  @Autowired
+  private RepositoryWrites repositoryWrites;
+
+  @Autowired
+  private EmployeeChangeFeed employeeChangeFeed;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${employees.write-behind.log-directory:data/write-behind}")
+  private Path logDirectory;
+
+  @Value("${employees.write-behind.flush-size:500}")
+  private int flushSize;
+
+  @Value("${employees.write-behind.flush-interval-ms:200}")
+  private long flushIntervalMillis;
+
+  @Value("${employees.write-behind.fsync:true}")
+  private boolean fsync;
+
+  @Value("${employees.write-behind.max-attempts:5}")
+  private int maxAttempts;
+
+  private WriteBehindJournal journal;
+
+  private TransactionTemplate writeTransaction;
+
+  // the latest unflushed write for each ID; guarded by this
+  private Map<String, Write> pending = new LinkedHashMap<>();
+
+  // writes being flushed, still read from here until they are committed; guarded by this
+  private Map<String, Write> flushing = Collections.emptyMap();
+
+  // one flush at a time, whether scheduled or requested by a caller
+  private final Lock flushLock = new ReentrantLock();
+
+  private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+  // how many flushes in a row each write has failed on its own; guarded by flushLock
+  private final Map<String, Integer> failedAttempts = new HashMap<>();
+
+  private final ScheduledExecutorService flusher = Executors
+      .newSingleThreadScheduledExecutor(new CustomizableThreadFactory("write-behind-"));
+
+  private Counter flushed;
+
+  private Counter deadLettered;
+
+  @PostConstruct
+  void init() throws IOException {
+    writeTransaction = new TransactionTemplate(transactionManager);
+    flushed = Counter.builder(FLUSHED_METRIC).register(meterRegistry);
+    deadLettered = Counter.builder(DEAD_LETTERED_METRIC).register(meterRegistry);
+    Gauge.builder(PENDING_METRIC, this, WriteBehindEmployeeStore::pendingCount)
+        .register(meterRegistry);
+
+    journal = new WriteBehindJournal(logDirectory, objectMapper, fsync);
+    List<Write> replayed = journal.open();
+    if (!replayed.isEmpty()) {
+      replay(replayed);
+    }
+    flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void shutdown() throws IOException, InterruptedException {
+    flusher.shutdown();
+    flusher.awaitTermination(30, TimeUnit.SECONDS);
+    // anything that can't be flushed now stays in the journal for the next start
+    flushQuietly();
+    journal.close();
+  }
+
+  @Override
+  public void save(Employee employee) {
+    sync(append(Write.create(employee)));
+  }
+
+  @Override
+  public boolean delete(String id) {
+    long ticket;
+    synchronized (this) {
+      Write previous = findUnflushed(id);
+      if (previous != null && previous.isDelete()) {
+        return false;
+      }
+      ticket = append(Write.delete(id));
+    }
+    sync(ticket);
+    return true;
+  }
+
+  @Override
+  public void saveAll(List<Employee> employees) {
+    // new IDs, so there are no unflushed writes of them to overtake
+    repositoryWrites.saveAll(employees);
+  }
+
+  @Override
+  public List<Employee> deleteAll(Collection<String> ids) {
+    // the repository must have every earlier write of these IDs
+    flush();
+    return repositoryWrites.deleteAll(ids);
+  }
+
+  @Override
+  public Optional<Employee> findById(String id) {
+    Write write;
+    synchronized (this) {
+      write = findUnflushed(id);
+    }
+    return write == null ? employeeRepository.findById(id)
+        : Optional.ofNullable(write.getEmployee());
+  }
+
+  @Override
+  public List<Employee> findAll() {
+    // taken before the query: a write flushed in between is then in both, where the overlay
+    // agrees with the query, rather than in neither
+    Map<String, Write> unflushed = snapshotUnflushed();
+    List<Employee> employees = employeeRepository.findAll();
+    return overlay(employees, unflushed, unflushed.keySet());
+  }
+
+  @Override
+  public List<Employee> findAllById(Collection<String> ids) {
+    Map<String, Write> unflushed = snapshotUnflushed();
+    List<Employee> employees = employeeRepository.findAllById(ids);
+    return overlay(employees, unflushed, ids);
+  }
+
+  @Override
+  public void flush() {
+    flushLock.lock();
+    try {
+      Map<String, Write> batch;
+      long sealed;
+      synchronized (this) {
+        if (pending.isEmpty()) {
+          return;
+        }
+        // sealed first, so a failure leaves the pending writes where they were
+        sealed = roll();
+        batch = pending;
+        pending = new LinkedHashMap<>();
+        flushing = batch;
+      }
+      Map<String, Write> retry = new LinkedHashMap<>();
+      RuntimeException failure = null;
+      int dropped = 0;
+      for (List<Write> writes : Lists.partition(new ArrayList<>(batch.values()), flushSize)) {
+        try {
+          commit(writes);
+          writes.forEach(write -> failedAttempts.remove(write.getId()));
+        } catch (DataAccessException | TransactionException e) {
+          log.warn("Failed to flush {} writes; writing them one at a time.", writes.size(), e);
+          failure = e;
+          dropped += writeEach(writes, retry);
+        }
+      }
+      synchronized (this) {
+        // writes made since the batch was taken are newer, so they win
+        retry.forEach(pending::putIfAbsent);
+        flushing = Collections.emptyMap();
+      }
+      flushed.increment(batch.size() - retry.size() - dropped);
+      if (!retry.isEmpty()) {
+        // the sealed segments still hold the writes to retry
+        throw failure;
+      }
+      deleteThrough(sealed);
+      log.debug("Flushed {} writes.", batch.size());
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /**
+   * Writes each in its own transaction, adding those to try again to retry. Gives up on the rest
+   * of the writes as soon as the database can't be reached, since each would wait for a
+   * connection in turn.
+   *
+   * @return the number of writes moved to the dead-letter file
+   */
+  private int writeEach(List<Write> writes, Map<String, Write> retry) {
+    boolean unreachable = false;
+    int dropped = 0;
+    for (Write write : writes) {
+      if (unreachable) {
+        retry.put(write.getId(), write);
+        continue;
+      }
+      try {
+        commit(List.of(write));
+        failedAttempts.remove(write.getId());
+      } catch (DataAccessResourceFailureException | CannotCreateTransactionException e) {
+        unreachable = true;
+        retry.put(write.getId(), write);
+      } catch (DataAccessException | TransactionException e) {
+        int attempts = failedAttempts.merge(write.getId(), 1, Integer::sum);
+        if (attempts < maxAttempts) {
+          retry.put(write.getId(), write);
+        } else {
+          failedAttempts.remove(write.getId());
+          deadLetter(write, e);
+          dropped++;
+        }
+      }
+    }
+    return dropped;
+  }
+
+  private void deadLetter(Write write, RuntimeException cause) {
+    log.error("Giving up on write-behind {} of employee {} after {} attempts.",
+        write.isDelete() ? "delete" : "create", write.getId(), maxAttempts, cause);
+    try {
+      journal.deadLetter(write);
+    } catch (IOException e) {
+      log.error("Failed to dead-letter write-behind entry for employee {}.", write.getId(), e);
+    }
+    deadLettered.increment();
+    if (!write.isDelete()) {
+      repositoryWrites.inOrder(List.of(write.getId()), () -> {
+        synchronized (this) {
+          // a newer write of the ID publishes itself when it is flushed
+          if (!pending.containsKey(write.getId())) {
+            employeeChangeFeed.deleted(write.getId());
+          }
+        }
+        return null;
+      });
+    }
+  }
+
+  /**
+   * Writes in one transaction and publishes the writes once it has committed.
+   */
+  private void commit(List<Write> writes) {
+    List<String> ids = writes.stream().map(Write::getId).collect(Collectors.toList());
+    repositoryWrites.inOrder(ids, () -> {
+      writeTransaction.executeWithoutResult(status -> write(writes));
+      for (Write write : writes) {
+        if (write.isDelete()) {
+          employeeChangeFeed.deleted(write.getId());
+        } else {
+          employeeChangeFeed.created(write.getEmployee());
+        }
+      }
+      return null;
+    });
+  }
+
+  private void write(List<Write> writes) {
+    List<Employee> creates = new ArrayList<>();
+    List<String> deletes = new ArrayList<>();
+    for (Write write : writes) {
+      if (write.isDelete()) {
+        deletes.add(write.getId());
+      } else {
+        creates.add(write.getEmployee());
+      }
+    }
+    if (!creates.isEmpty()) {
+      employeeRepository.saveAll(creates);
+      employeeRepository.flush();
+    }
+    if (!deletes.isEmpty()) {
+      employeeRepository.deleteAllByIdInBatch(deletes);
+    }
+    persistenceContext.detachAll();
+  }
+
+  /**
+   * Flushes the writes a crash left in the journal. A create may already have been committed
+   * before the crash, so those already in the repository are skipped rather than inserted twice.
+   */
+  private void replay(List<Write> replayed) {
+    long replayedThrough = journal.getSequence() - 1;
+    Map<String, Write> latest = new LinkedHashMap<>();
+    replayed.forEach(write -> latest.put(write.getId(), write));
+    List<String> createdIds = latest.values().stream().filter(write -> !write.isDelete())
+        .map(Write::getId).collect(Collectors.toList());
+    for (List<String> ids : Lists.partition(createdIds, flushSize)) {
+      employeeRepository.findAllById(ids).forEach(employee -> latest.remove(employee.getId()));
+    }
+    synchronized (this) {
+      pending.putAll(latest);
+    }
+    log.info("Replaying {} writes left unflushed by the previous run.", latest.size());
+    flush();
+    // the flush only seals the new segment when there was something left to write
+    deleteThrough(replayedThrough);
+  }
+
+  /**
+   * @return the journal ticket to {@link #sync} on, outside this lock, before acknowledging
+   */
+  private synchronized long append(Write write) {
+    long ticket;
+    try {
+      ticket = journal.append(write);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    pending.put(write.getId(), write);
+    if (pending.size() >= flushSize && flushRequested.compareAndSet(false, true)) {
+      flusher.execute(() -> {
+        flushRequested.set(false);
+        flushQuietly();
+      });
+    }
+    return ticket;
+  }
+
+  private void sync(long ticket) {
+    try {
+      journal.sync(ticket);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      log.warn("Failed to flush {} writes; retrying after the next interval.", pendingCount(), e);
+    }
+  }
+
+  private Write findUnflushed(String id) {
+    Write write = pending.get(id);
+    return write == null ? flushing.get(id) : write;
+  }
+
+  private synchronized Map<String, Write> snapshotUnflushed() {
+    Map<String, Write> unflushed = new HashMap<>(flushing);
+    unflushed.putAll(pending);
+    return unflushed;
+  }
+
+  /**
+   * @return the employees from the repository with unflushed writes applied, limited to the
+   *         provided IDs
+   */
+  private static List<Employee> overlay(List<Employee> employees, Map<String, Write> unflushed,
+      Collection<String> ids) {
+    if (unflushed.isEmpty()) {
+      return employees;
+    }
+    List<Employee> result = new ArrayList<>(employees.size());
+    for (Employee employee : employees) {
+      if (!unflushed.containsKey(employee.getId())) {
+        result.add(employee);
+      }
+    }
+    for (String id : ids) {
+      Write write = unflushed.get(id);
+      if (write != null && !write.isDelete()) {
+        result.add(write.getEmployee());
+      }
+    }
+    return result;
+  }
+
+  private long roll() {
+    try {
+      return journal.roll();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void deleteThrough(long sealed) {
+    try {
+      journal.deleteThrough(sealed);
+    } catch (IOException e) {
+      // the writes are committed, so replaying them later is harmless, only slower
+      log.warn("Failed to delete flushed write-behind segments.", e);
+    }
+  }
+
+  private synchronized int pendingCount() {
+    return pending.size() + flushing.size();
+  }
+}
@@ -0,0 +1,257 @@
+package com.example.rqchallenge.employees.store;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import com.example.rqchallenge.domain.Employee;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An append-only log of writes that haven't reached the repository yet, one line per write. The
+ * log is split into numbered segments: each flush seals the current segment and deletes it once
+ * its writes are committed, so only unflushed writes are left to replay after a crash.
+ *
+ * <p>
+ * Appending and forcing to disk are separate steps, so writers append under the store's lock and
+ * wait for the disk outside it. One fsync covers every write appended before it started, so
+ * concurrent writers share it (group commit).
+ */
+@Slf4j
+class WriteBehindJournal implements Closeable {
+
+  private static final String SEGMENT_PREFIX = "segment-";
+
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  private static final String CREATE = "C\t";
+
+  private static final String DELETE = "D\t";
+
+  static final String DEAD_LETTER_FILE = "dead-letter.log";
+
+  /**
+   * A create, or a delete if there is no employee.
+   */
+  @Value
+  static class Write {
+    String id;
+    Employee employee;
+
+    static Write create(Employee employee) {
+      return new Write(employee.getId(), employee);
+    }
+
+    static Write delete(String id) {
+      return new Write(id, null);
+    }
+
+    boolean isDelete() {
+      return employee == null;
+    }
+  }
+
+  private final Path directory;
+
+  private final ObjectMapper objectMapper;
+
+  private final boolean fsync;
+
+  // swapped by roll, which holds syncLock, so sync always forces the segment it appended to
+  private FileChannel segment;
+
+  private long sequence;
+
+  private final Object syncLock = new Object();
+
+  // the number of writes appended; only incremented under the store's lock
+  private volatile long appended;
+
+  // the number of appended writes known to be on disk; guarded by syncLock
+  private long synced;
+
+  /**
+   * @param directory the directory holding the segments
+   * @param objectMapper the mapper used to write and read employees
+   * @param fsync whether {@link #sync} forces appended writes to disk
+   */
+  WriteBehindJournal(Path directory, ObjectMapper objectMapper, boolean fsync) {
+    this.directory = directory;
+    this.objectMapper = objectMapper;
+    this.fsync = fsync;
+  }
+
+  /**
+   * Reads the segments left by the previous run and opens a new one to append to.
+   *
+   * @return the writes in every existing segment, oldest first
+   */
+  List<Write> open() throws IOException {
+    Files.createDirectories(directory);
+    List<Write> writes = new ArrayList<>();
+    for (Path existing : listSegments()) {
+      sequence = Math.max(sequence, sequenceOf(existing));
+      try (BufferedReader reader = Files.newBufferedReader(existing, UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          Write write = parse(line);
+          if (write == null) {
+            // most likely the last line, torn by the crash
+            log.warn("Skipping unreadable write-behind entry in {}: {}", existing, line);
+          } else {
+            writes.add(write);
+          }
+        }
+      }
+    }
+    openSegment(sequence + 1);
+    return writes;
+  }
+
+  /**
+   * Must not be called concurrently with itself or {@link #roll}.
+   *
+   * @param write the write to append to the current segment
+   * @return the ticket to pass to {@link #sync} to wait until the write is on disk
+   */
+  long append(Write write) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(toLine(write).getBytes(UTF_8));
+    while (buffer.hasRemaining()) {
+      segment.write(buffer);
+    }
+    return ++appended;
+  }
+
+  /**
+   * Returns once the write with the provided ticket is on disk. Callers queued behind an fsync in
+   * progress usually find their write already covered by it.
+   *
+   * @param ticket the ticket returned by {@link #append}
+   */
+  void sync(long ticket) throws IOException {
+    if (!fsync) {
+      return;
+    }
+    synchronized (syncLock) {
+      if (synced >= ticket) {
+        return;
+      }
+      long through = appended;
+      segment.force(false);
+      synced = through;
+    }
+  }
+
+  /**
+   * Seals the current segment and starts a new one. Must not be called concurrently with
+   * {@link #append}.
+   *
+   * @return the sequence number of the sealed segment
+   */
+  long roll() throws IOException {
+    synchronized (syncLock) {
+      long sealed = sequence;
+      // writers may still be waiting to sync writes in the sealed segment
+      if (fsync) {
+        segment.force(false);
+      }
+      synced = appended;
+      segment.close();
+      openSegment(sealed + 1);
+      return sealed;
+    }
+  }
+
+  /**
+   * Keeps a write that can never be committed for an operator to inspect. The file isn't a
+   * segment, so it is never replayed.
+   *
+   * @param write the write given up on
+   */
+  void deadLetter(Write write) throws IOException {
+    Files.writeString(directory.resolve(DEAD_LETTER_FILE), toLine(write), UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  /**
+   * @param sealed the sequence number of a sealed segment whose writes are all committed
+   */
+  void deleteThrough(long sealed) throws IOException {
+    for (Path existing : listSegments()) {
+      if (sequenceOf(existing) <= sealed) {
+        Files.delete(existing);
+      }
+    }
+  }
+
+  /**
+   * @return the sequence number of the segment being appended to
+   */
+  long getSequence() {
+    return sequence;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (segment != null) {
+      segment.close();
+    }
+  }
+
+  private void openSegment(long next) throws IOException {
+    sequence = next;
+    segment = FileChannel.open(directory.resolve(segmentName(next)), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  private String toLine(Write write) throws JsonProcessingException {
+    String line = write.isDelete() ? DELETE + write.getId()
+        : CREATE + objectMapper.writeValueAsString(write.getEmployee());
+    return line + "\n";
+  }
+
+  private Write parse(String line) {
+    try {
+      if (line.startsWith(CREATE)) {
+        return Write.create(
+            objectMapper.readValue(line.substring(CREATE.length()), Employee.class));
+      }
+      if (line.startsWith(DELETE) && line.length() > DELETE.length()) {
+        return Write.delete(line.substring(DELETE.length()));
+      }
+    } catch (JsonProcessingException e) {
+      log.debug("Cannot parse write-behind entry.", e);
+    }
+    return null;
+  }
+
+  private List<Path> listSegments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      // zero-padded names sort in sequence order
+      return files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+          .sorted().collect(Collectors.toList());
+    }
+  }
+
+  static String segmentName(long sequence) {
+    return String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX);
+  }
+
+  private static long sequenceOf(Path segment) {
+    String name = segment.getFileName().toString();
+    return Long.parseLong(
+        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+}
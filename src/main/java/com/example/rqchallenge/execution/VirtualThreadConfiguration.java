@@ -0,0 +1,67 @@
+package com.example.rqchallenge.execution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Handles requests on virtual threads when employees.execution.mode is virtual. The handler still
+ * blocks on JDBC, but a blocked virtual thread gives up its carrier thread, so the number of
+ * requests in flight is bounded by the connection pool instead of Tomcat's thread pool.
+ *
+ * <p>
+ * Virtual threads need Java 21. The executor is looked up reflectively so the build keeps
+ * targeting Java 11 and the default platform mode runs on any JVM.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "employees.execution.mode", havingValue = "virtual")
+@Slf4j
+public class VirtualThreadConfiguration implements WebMvcConfigurer {
+
+  private final ExecutorService executor;
+
+  public VirtualThreadConfiguration() {
+    executor = newVirtualThreadPerTaskExecutor();
+    log.info("Handling requests on virtual threads");
+  }
+
+  @Bean
+  TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+    return protocolHandler -> protocolHandler.setExecutor(executor);
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    // the NDJSON stream is written on the MVC async executor rather than the request thread
+    configurer.setTaskExecutor(new TaskExecutorAdapter(executor));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    // Tomcat only shuts down executors it created itself
+    executor.shutdown();
+  }
+
+  static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(
+          "employees.execution.mode=virtual requires Java 21 or later, running on "
+              + Runtime.version(),
+          e);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Cannot create a virtual thread executor", e);
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.rqchallenge.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides whether to log a full payload. Payloads are only logged at DEBUG, and then only for a
+ * sample of calls, so turning on DEBUG under load doesn't flood the logs or the allocator.
+ */
+@Component
+public class PayloadLogSampler {
+
+  @Value("${employees.logging.payload-sample-rate:0.01}")
+  private double sampleRate;
+
+  /**
+   * @param log the logger the payload would be written to
+   * @return true if the payload should be logged at DEBUG
+   */
+  public boolean sample(Logger log) {
+    return log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate;
+  }
+}
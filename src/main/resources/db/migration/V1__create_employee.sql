@@ -0,0 +1,11 @@
+-- ids are stored as native 16-byte UUIDs rather than 36-character strings
+create table employee (
+  id uuid not null,
+  name varchar(255),
+  salary integer,
+  age integer,
+  constraint pk_employee primary key (id)
+);
+
+-- the highest salary and top ten queries read the head of this index instead of sorting
+create index idx_employee_salary on employee (salary desc);
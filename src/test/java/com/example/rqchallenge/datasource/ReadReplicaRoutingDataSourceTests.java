@@ -0,0 +1,114 @@
+package com.example.rqchallenge.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Routes between two in-memory H2 databases standing in for a primary and a replica, each
+ * holding its own name in a single row.
+ */
+class ReadReplicaRoutingDataSourceTests {
+
+  private static final DataSource PRIMARY = database("primary");
+
+  private static final DataSource REPLICA = database("replica");
+
+  @BeforeAll
+  static void createDatabases() {
+    createDatabase(PRIMARY, "primary");
+    createDatabase(REPLICA, "replica");
+  }
+
+  @Test
+  void readOnlyTransactionsUseReplica() {
+    Router router = new Router();
+
+    assertEquals("replica", router.read());
+  }
+
+  @Test
+  void writeTransactionsUsePrimary() {
+    Router router = new Router();
+
+    assertEquals("primary", router.write());
+  }
+
+  @Test
+  void pinnedReadsUsePrimary() {
+    Router router = new Router();
+
+    assertEquals("primary", ReadRouting.onPrimary(router::read));
+  }
+
+  @Test
+  void readsUseReplicaOncePinIsReleased() {
+    Router router = new Router();
+
+    ReadRouting.onPrimary(router::read);
+
+    assertEquals("replica", router.read());
+  }
+
+  @Test
+  void writesDoNotPinOtherReads() {
+    Router router = new Router();
+
+    router.write();
+
+    assertEquals("replica", router.read());
+  }
+
+  private static void createDatabase(DataSource dataSource, String name) {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("create table if not exists route (name varchar(16))");
+    jdbcTemplate.update("delete from route");
+    jdbcTemplate.update("insert into route values (?)", name);
+  }
+
+  private static DataSource database(String name) {
+    return new DriverManagerDataSource(
+        String.format("jdbc:h2:mem:routing-%s;DB_CLOSE_DELAY=-1", name));
+  }
+
+  private static class Router {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readTransaction;
+
+    private final TransactionTemplate writeTransaction;
+
+    Router() {
+      ReadReplicaRoutingDataSource routingDataSource =
+          new ReadReplicaRoutingDataSource(PRIMARY, List.of(REPLICA));
+      routingDataSource.afterPropertiesSet();
+      DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+      DataSourceTransactionManager transactionManager =
+          new DataSourceTransactionManager(dataSource);
+      jdbcTemplate = new JdbcTemplate(dataSource);
+      readTransaction = new TransactionTemplate(transactionManager);
+      readTransaction.setReadOnly(true);
+      writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    String read() {
+      return readTransaction.execute(status -> selectName());
+    }
+
+    String write() {
+      return writeTransaction.execute(status -> selectName());
+    }
+
+    private String selectName() {
+      return jdbcTemplate.queryForObject("select name from route", String.class);
+    }
+  }
+}
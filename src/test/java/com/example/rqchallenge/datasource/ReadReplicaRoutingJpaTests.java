@@ -0,0 +1,83 @@
+package com.example.rqchallenge.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.util.UUID;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Routes the whole application between two separate H2 databases. Nothing replicates between
+ * them, so where a row ends up shows which database each statement went to.
+ */
+@SpringBootTest(properties = {"employees.datasource.routing.enabled=true",
+    "employees.datasource.primary.jdbc-url=" + ReadReplicaRoutingJpaTests.PRIMARY_URL,
+    "employees.datasource.primary.username=sa",
+    "employees.datasource.replicas[0].jdbc-url=" + ReadReplicaRoutingJpaTests.REPLICA_URL,
+    "employees.datasource.replicas[0].username=sa"})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingJpaTests {
+
+  static final String PRIMARY_URL = "jdbc:h2:mem:jpa-routing-primary;DB_CLOSE_DELAY=-1";
+
+  static final String REPLICA_URL = "jdbc:h2:mem:jpa-routing-replica;DB_CLOSE_DELAY=-1";
+
+  private static final String INSERT_EMPLOYEE =
+      "insert into employee (id, name, salary, age) values (?, ?, ?, ?)";
+
+  private static final String COUNT_EMPLOYEE = "select count(*) from employee where id = ?";
+
+  static {
+    // Flyway only migrates the primary, but reads routed to the replica need the table too
+    Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+  }
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  private JdbcTemplate primary =
+      new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+
+  private JdbcTemplate replica =
+      new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+  @Test
+  void deleteAfterReplicaReadGoesToPrimary() throws Exception {
+    String id = UUID.randomUUID().toString();
+    // as if replicated
+    for (JdbcTemplate database : new JdbcTemplate[] {primary, replica}) {
+      database.update(INSERT_EMPLOYEE, id, "Replicated", 50000, 30);
+    }
+
+    mockMvc.perform(delete("/{id}", id)).andExpect(status().isOk());
+
+    assertEquals(0, primary.queryForObject(COUNT_EMPLOYEE, Integer.class, id));
+    assertEquals(1, replica.queryForObject(COUNT_EMPLOYEE, Integer.class, id));
+  }
+
+  @Test
+  void lookupsFillTheCacheFromPrimary() throws Exception {
+    String id = UUID.randomUUID().toString();
+    // not yet replicated
+    primary.update(INSERT_EMPLOYEE, id, "Not Replicated", 50000, 30);
+
+    mockMvc.perform(get("/{id}", id)).andExpect(status().isOk())
+        .andExpect(header().exists(HttpHeaders.ETAG));
+  }
+
+  @Test
+  void replicaReadsAreNotTagged() throws Exception {
+    mockMvc.perform(get("/page")).andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+  }
+}
@@ -0,0 +1,84 @@
+package com.example.rqchallenge.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.FilterChain;
+import javax.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ReadYourWritesFilterTests {
+
+  private ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofHours(1));
+
+  private AtomicBoolean pinned = new AtomicBoolean();
+
+  private FilterChain chain = (request, response) -> pinned.set(ReadRouting.isPinnedToPrimary());
+
+  @Test
+  void writeIssuesToken() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(new MockHttpServletRequest("POST", "/"), response, chain);
+
+    Cookie cookie = response.getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE);
+    assertNotNull(cookie);
+    assertEquals(cookie.getValue(), response.getHeader(ReadYourWritesFilter.LAST_WRITE_HEADER));
+  }
+
+  @Test
+  void readsWithoutTokenAreNotPinned() throws Exception {
+    filter.doFilter(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse(), chain);
+
+    assertFalse(pinned.get());
+  }
+
+  @Test
+  void readsWithRecentCookieArePinned() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.setCookies(new Cookie(ReadYourWritesFilter.LAST_WRITE_COOKIE,
+        Long.toString(System.currentTimeMillis())));
+
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+    assertTrue(pinned.get());
+    assertFalse(ReadRouting.isPinnedToPrimary());
+  }
+
+  @Test
+  void readsWithRecentHeaderArePinned() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader(ReadYourWritesFilter.LAST_WRITE_HEADER, System.currentTimeMillis());
+
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+    assertTrue(pinned.get());
+  }
+
+  @Test
+  void readsWithExpiredTokenAreNotPinned() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader(ReadYourWritesFilter.LAST_WRITE_HEADER,
+        System.currentTimeMillis() - Duration.ofHours(2).toMillis());
+
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+    assertFalse(pinned.get());
+  }
+
+  @Test
+  void readsWithFutureTokenAreNotPinned() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader(ReadYourWritesFilter.LAST_WRITE_HEADER,
+        System.currentTimeMillis() + Duration.ofHours(2).toMillis());
+
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+    assertFalse(pinned.get());
+  }
+}
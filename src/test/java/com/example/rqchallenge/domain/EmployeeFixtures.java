@@ -0,0 +1,27 @@
+package com.example.rqchallenge.domain;
+
+import java.util.UUID;
+
+/**
+ * Builds the employees used across the tests.
+ */
+public final class EmployeeFixtures {
+
+  private EmployeeFixtures() {}
+
+  /**
+   * @return an employee aged 30 with a random ID
+   */
+  public static Employee createEmployee(String name, Integer salary) {
+    return createEmployee(UUID.randomUUID().toString(), name, salary, 30);
+  }
+
+  public static Employee createEmployee(String id, String name, Integer salary, Integer age) {
+    Employee employee = new Employee();
+    employee.setId(id);
+    employee.setName(name);
+    employee.setSalary(salary);
+    employee.setAge(age);
+    return employee;
+  }
+}
@@ -0,0 +1,73 @@
+package com.example.rqchallenge.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.google.common.collect.Lists;
+
+class EmployeeInputDeserializerTests {
+
+  private ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void readValidInput() throws Exception {
+    EmployeeInput actual = objectMapper.readValue(
+        "{\"name\":\"Test Name\",\"salary\":50000,\"age\":\"30\",\"id\":\"ignored\"}",
+        EmployeeInput.class);
+
+    assertTrue(actual.getProblems().isEmpty());
+    assertEquals(new EmployeeInput("Test Name", 50000, 30), actual);
+  }
+
+  @Test
+  void readNumbersSentAsStrings() throws Exception {
+    EmployeeInput actual = objectMapper
+        .readValue("{\"name\":\"Test Name\",\"salary\":\"50000\",\"age\":30}", EmployeeInput.class);
+
+    assertTrue(actual.getProblems().isEmpty());
+    assertEquals(new EmployeeInput("Test Name", 50000, 30), actual);
+  }
+
+  @Test
+  void rejectInvalidAndMissingAttributes() throws Exception {
+    EmployeeInput actual = objectMapper.readValue(
+        "{\"name\":\"\",\"salary\":\"Wrong\",\"title\":{\"nested\":[1,2]}}", EmployeeInput.class);
+
+    assertEquals(Lists.newArrayList("name must be a non-empty string",
+        "salary must be a non-negative whole number", "title is not an employee attribute",
+        "age is required"), actual.getProblems());
+  }
+
+  @Test
+  void rejectObjectName() throws Exception {
+    EmployeeInput actual = objectMapper.readValue(
+        "{\"name\":{\"first\":\"A\"},\"salary\":1,\"age\":2}", EmployeeInput.class);
+
+    assertEquals(Lists.newArrayList("name must be a non-empty string"), actual.getProblems());
+  }
+
+  @Test
+  void rejectArrayName() throws Exception {
+    EmployeeInput actual = objectMapper
+        .readValue("{\"name\":[\"A\",[\"B\"]],\"salary\":1,\"age\":2}", EmployeeInput.class);
+
+    assertEquals(Lists.newArrayList("name must be a non-empty string"), actual.getProblems());
+  }
+
+  @Test
+  void rejectOutOfRangeNumbers() throws Exception {
+    EmployeeInput actual = objectMapper.readValue(
+        "{\"name\":\"Test Name\",\"salary\":-1,\"age\":151}", EmployeeInput.class);
+
+    assertEquals(2, actual.getProblems().size());
+  }
+
+  @Test
+  void failOnNonObjectInput() {
+    assertThrows(MismatchedInputException.class,
+        () -> objectMapper.readValue("[\"Test Name\"]", EmployeeInput.class));
+  }
+}
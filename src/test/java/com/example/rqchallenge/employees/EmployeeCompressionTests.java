@@ -0,0 +1,71 @@
+package com.example.rqchallenge.employees;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import com.example.rqchallenge.domain.Employee;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs against the embedded server, since MockMvc skips the container's response compression.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class EmployeeCompressionTests {
+
+  private static final int EMPLOYEES = 100;
+
+  @LocalServerPort
+  private int port;
+
+  private HttpClient httpClient = HttpClient.newHttpClient();
+
+  private ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void compressSearchResults() throws Exception {
+    List<Map<String, Object>> inputs = new ArrayList<>();
+    for (int i = 0; i < EMPLOYEES; i++) {
+      inputs.add(Map.of("name", "Test Name", "salary", 50000, "age", 30));
+    }
+    HttpResponse<String> created = httpClient.send(HttpRequest.newBuilder(uri("/bulk"))
+        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .POST(BodyPublishers.ofString(objectMapper.writeValueAsString(inputs))).build(),
+        BodyHandlers.ofString());
+    assertEquals(HttpStatus.OK.value(), created.statusCode());
+
+    HttpResponse<InputStream> response = httpClient.send(HttpRequest.newBuilder(uri("/search/Test"))
+        .header(HttpHeaders.ACCEPT_ENCODING, "gzip").build(), BodyHandlers.ofInputStream());
+
+    assertEquals(HttpStatus.OK.value(), response.statusCode());
+    assertEquals("gzip",
+        response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+    assertTrue(response.headers().firstValue(HttpHeaders.ETAG).orElseThrow().startsWith("W/"));
+    try (InputStream inputStream = new GZIPInputStream(response.body())) {
+      List<Employee> actual =
+          objectMapper.readValue(inputStream, new TypeReference<List<Employee>>() {});
+      assertEquals(EMPLOYEES, actual.size());
+    }
+  }
+
+  private URI uri(String path) {
+    return URI.create(String.format("http://localhost:%d%s", port, path));
+  }
+}
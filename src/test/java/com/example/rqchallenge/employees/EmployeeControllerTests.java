@@ -2,37 +2,61 @@ package com.example.rqchallenge.employees;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.DirtiesContext.MethodMode;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.EmployeeBulkResult;
+import com.example.rqchallenge.domain.EmployeeBulkResult.Status;
+import com.example.rqchallenge.domain.EmployeeChange;
+import com.example.rqchallenge.domain.EmployeeChanges;
+import com.example.rqchallenge.domain.EmployeePage;
+import com.example.rqchallenge.domain.SalaryStats;
 import com.example.rqchallenge.employees.exceptions.EmployeeNotFoundException;
 import com.example.rqchallenge.employees.exceptions.EmployeeValidationException;
+import com.example.rqchallenge.employees.index.EmployeeIndexes;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.google.common.collect.Lists;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 class EmployeeControllerTests {
 
+  private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
   private static final String AGE_KEY = "age";
 
   private static final String SALARY_KEY = "salary";
@@ -42,6 +66,9 @@ class EmployeeControllerTests {
   @Autowired
   private MockMvc mockMvc;
 
+  @Autowired
+  private EmployeeIndexes employeeIndexes;
+
   ObjectMapper objectMapper = new ObjectMapper();
 
   @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
@@ -60,6 +87,59 @@ class EmployeeControllerTests {
     assertEquals(2, actual.size());
   }
 
+  @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
+  @Test
+  void getEmployeePage() throws Exception {
+    IntStream.range(0, 3).forEach(idx -> createEmployeeForTest(createDefaultEmployeeInput()));
+
+    EmployeePage firstPage = objectMapper
+        .readValue(runGetRequest("/page?limit=2").getContentAsString(), EmployeePage.class);
+    assertEquals(2, firstPage.getEmployees().size());
+    assertNotNull(firstPage.getNextCursor());
+
+    String uri = String.format("/page?limit=2&after=%s", firstPage.getNextCursor());
+    EmployeePage lastPage =
+        objectMapper.readValue(runGetRequest(uri).getContentAsString(), EmployeePage.class);
+    assertEquals(1, lastPage.getEmployees().size());
+    assertNull(lastPage.getNextCursor());
+    // uuid columns sort like java.util.UUID, as signed longs, not in string order
+    assertTrue(UUID.fromString(firstPage.getNextCursor())
+        .compareTo(UUID.fromString(lastPage.getEmployees().get(0).getId())) < 0);
+  }
+
+  @Test
+  void failGetEmployeePageWithInvalidLimit() throws Exception {
+    mockMvc.perform(get("/page").param("limit", "0")).andExpect(status().isBadRequest())
+        .andExpect(result -> assertTrue(
+            result.getResolvedException() instanceof EmployeeValidationException));
+  }
+
+  @Test
+  void failGetEmployeePageWithMalformedCursor() throws Exception {
+    mockMvc.perform(get("/page").param("after", "Bad Id")).andExpect(status().isBadRequest())
+        .andExpect(result -> assertTrue(
+            result.getResolvedException() instanceof EmployeeValidationException));
+  }
+
+  @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
+  @Test
+  void streamAllEmployees() throws Exception {
+    Employee expected = createEmployeeForTest(createDefaultEmployeeInput());
+    createEmployeeForTest(createDefaultEmployeeInput());
+
+    MvcResult asyncResult =
+        mockMvc.perform(get("/stream")).andExpect(request().asyncStarted()).andReturn();
+    String[] lines = mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString().split("\n");
+
+    assertEquals(2, lines.length);
+    List<Employee> actual = Lists.newArrayList();
+    for (String line : lines) {
+      actual.add(objectMapper.readValue(line, Employee.class));
+    }
+    assertTrue(actual.contains(expected));
+  }
+
   @Test
   void getEmployeesByNameSearch() throws JsonProcessingException, Exception {
     Map<String, Object> expected = createDefaultEmployeeInput();
@@ -78,6 +158,24 @@ class EmployeeControllerTests {
     assertEquals(expected.get(NAME_KEY), actual.get(0).getName());
   }
 
+  @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
+  @Test
+  void getEmployeesByNameSearchRanksAndLimitsResults() throws Exception {
+    for (String name : Lists.newArrayList("Joanne Smith", "Mary Ann", "Ann")) {
+      Map<String, Object> input = createDefaultEmployeeInput();
+      input.put(NAME_KEY, name);
+      createEmployeeForTest(input);
+    }
+
+    MockHttpServletResponse response = runGetRequest("/search/ann?limit=2");
+    List<Employee> actual = objectMapper.readValue(response.getContentAsString(),
+        new TypeReference<List<Employee>>() {});
+
+    assertEquals(2, actual.size());
+    assertEquals("Ann", actual.get(0).getName());
+    assertEquals("Mary Ann", actual.get(1).getName());
+  }
+
   @Test
   void getEmployeeById() throws Exception {
     Map<String, Object> expectedInput = createDefaultEmployeeInput();
@@ -93,6 +191,51 @@ class EmployeeControllerTests {
     assertEquals(expected, actual);
   }
 
+  @Test
+  void getAllEmployeesNotModifiedUntilEmployeesChange() throws Exception {
+    createEmployeeForTest(createDefaultEmployeeInput());
+    String etag = runGetRequest("/").getHeader(HttpHeaders.ETAG);
+    assertTrue(etag.startsWith("W/"));
+
+    mockMvc.perform(get("/").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified()).andExpect(content().string(""));
+    mockMvc
+        .perform(
+            get("/topTenHighestEarningEmployeeNames").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+
+    createEmployeeForTest(createDefaultEmployeeInput());
+    mockMvc.perform(get("/").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+  }
+
+  @Test
+  void tagNegotiatedReadsWeaklyAndVaryByAccept() throws Exception {
+    Employee employee = createEmployeeForTest(createDefaultEmployeeInput());
+
+    for (String uri : Lists.newArrayList("/search/Test", "/" + employee.getId())) {
+      MockHttpServletResponse response = mockMvc.perform(get(uri).accept(SMILE))
+          .andExpect(status().isOk()).andReturn().getResponse();
+
+      assertTrue(response.getHeader(HttpHeaders.ETAG).startsWith("W/"));
+      assertTrue(response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+    }
+  }
+
+  @Test
+  void getEmployeeByIdNotModifiedWhileItExists() throws Exception {
+    Employee employee = createEmployeeForTest(createDefaultEmployeeInput());
+    String etag = runGetRequest("/" + employee.getId()).getHeader(HttpHeaders.ETAG);
+    // other employees changing doesn't affect this one's tag
+    createEmployeeForTest(createDefaultEmployeeInput());
+
+    mockMvc.perform(get("/{id}", employee.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+
+    mockMvc.perform(delete("/{id}", employee.getId())).andExpect(status().isOk());
+    mockMvc.perform(get("/{id}", employee.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isBadRequest());
+  }
+
   @Test
   void failGetEmployeeByWrongId() throws Exception {
     mockMvc.perform(get("/{id}", "Bad Id")).andExpect(status().isBadRequest()).andExpect(
@@ -100,6 +243,20 @@ class EmployeeControllerTests {
 
   }
 
+  @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
+  @Test
+  void failGetEmployeeByWrongIdIsCached() throws Exception {
+    String missingId = UUID.randomUUID().toString();
+    mockMvc.perform(get("/{id}", missingId)).andExpect(status().isBadRequest());
+    mockMvc.perform(get("/{id}", missingId)).andExpect(status().isBadRequest());
+
+    Map<String, Object> stats = objectMapper.readValue(
+        runGetRequest("/actuator/employeecache").getContentAsString(),
+        new TypeReference<Map<String, Object>>() {});
+    assertEquals(1, ((Number) stats.get("missCount")).intValue());
+    assertEquals(1, ((Number) stats.get("hitCount")).intValue());
+  }
+
   @Test
   void getHighestSalaryOfEmployees() throws JsonProcessingException, Exception {
     Map<String, Object> matchingEmployee = createDefaultEmployeeInput();
@@ -116,6 +273,66 @@ class EmployeeControllerTests {
 
   }
 
+  @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
+  @Test
+  void getHighestSalaryOfNoEmployees() throws Exception {
+    mockMvc.perform(get("/highestSalary")).andExpect(status().isNoContent());
+  }
+
+  @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
+  @Test
+  void getSalaryStats() throws Exception {
+    Employee deleted = createEmployeeForTest(createDefaultEmployeeInput());
+    for (int salary : new int[] {40000, 80000}) {
+      Map<String, Object> input = createDefaultEmployeeInput();
+      input.put(SALARY_KEY, salary);
+      createEmployeeForTest(input);
+    }
+    mockMvc.perform(delete("/{id}", deleted.getId())).andExpect(status().isOk());
+
+    SalaryStats actual = objectMapper
+        .readValue(runGetRequest("/salaryStats").getContentAsString(), SalaryStats.class);
+
+    assertEquals(2, actual.getCount());
+    assertEquals(40000, actual.getMin());
+    assertEquals(80000, actual.getMax());
+    assertEquals(60000.0, actual.getAverage());
+    assertEquals(1, actual.getBuckets().get(1).getCount());
+    assertEquals(1, actual.getBuckets().get(3).getCount());
+  }
+
+  @Test
+  void searchAndSalaryStatsUnavailableWhileRebuilding() throws Exception {
+    // holding the write lock is what a rebuild does; the requests run on this thread
+    ReentrantReadWriteLock rebuildLock =
+        (ReentrantReadWriteLock) ReflectionTestUtils.getField(employeeIndexes, "rebuildLock");
+    rebuildLock.writeLock().lock();
+    try {
+      mockMvc.perform(get("/search/{searchString}", "Test"))
+          .andExpect(status().isServiceUnavailable())
+          .andExpect(header().string("Retry-After", "1"));
+      mockMvc.perform(get("/salaryStats")).andExpect(status().isServiceUnavailable());
+    } finally {
+      rebuildLock.writeLock().unlock();
+    }
+  }
+
+  @Test
+  void searchAndSalaryStatsUnavailableUntilIndexesLoad() throws Exception {
+    // as before a background load has finished
+    ReflectionTestUtils.setField(employeeIndexes, "loaded", false);
+    try {
+      mockMvc.perform(get("/search/{searchString}", "Test"))
+          .andExpect(status().isServiceUnavailable());
+      mockMvc.perform(get("/salaryStats")).andExpect(status().isServiceUnavailable());
+      // answered from the database in the meantime
+      mockMvc.perform(get("/topTenHighestEarningEmployeeNames")).andExpect(status().isOk());
+    } finally {
+      employeeIndexes.rebuild();
+    }
+    mockMvc.perform(get("/salaryStats")).andExpect(status().isOk());
+  }
+
   @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
   @Test
   void getTopTenHighestEarningEmployeeNames() throws Exception {
@@ -134,6 +351,134 @@ class EmployeeControllerTests {
     assertEquals(expected, actual);
   }
 
+  @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
+  @Test
+  void getAllEmployeesFromResponseCache() throws Exception {
+    IntStream.range(0, 100).forEach(idx -> createEmployeeForTest(createDefaultEmployeeInput()));
+    String expected = runGetRequest("/").getContentAsString();
+
+    byte[] gzipped = mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+        .andExpect(status().isOk()).andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andReturn().getResponse().getContentAsByteArray();
+    try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+      assertEquals(expected, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+    }
+    assertEquals(expected, runGetRequest("/").getContentAsString());
+
+    // creating an employee invalidates the cached response
+    createEmployeeForTest(createDefaultEmployeeInput());
+    assertNumEmployees(101);
+  }
+
+  @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
+  @Test
+  void getChangesSinceStart() throws Exception {
+    EmployeeChanges start = getChanges("/changes");
+    Employee created = createEmployeeForTest(createDefaultEmployeeInput());
+    mockMvc.perform(delete("/" + created.getId())).andExpect(status().isOk());
+
+    EmployeeChanges actual = getChanges("/changes?since=" + start.getNext());
+
+    assertEquals(start.getEpoch(), actual.getEpoch());
+    assertEquals(start.getNext() + 2, actual.getNext());
+    assertEquals(Lists.newArrayList(
+        new EmployeeChange(start.getNext() + 1, EmployeeChange.Type.CREATED, created.getId(),
+            created),
+        new EmployeeChange(start.getNext() + 2, EmployeeChange.Type.DELETED, created.getId(),
+            null)),
+        actual.getChanges());
+  }
+
+  @Test
+  void getChangesWaitsForNextChange() throws Exception {
+    EmployeeChanges start = getChanges("/changes");
+    MvcResult asyncResult =
+        mockMvc.perform(get("/changes?waitMs=5000&since=" + start.getNext()))
+            .andExpect(request().asyncStarted()).andReturn();
+
+    Employee created = createEmployeeForTest(createDefaultEmployeeInput());
+
+    EmployeeChanges actual = objectMapper.readValue(mockMvc.perform(asyncDispatch(asyncResult))
+        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString(),
+        EmployeeChanges.class);
+    assertEquals(created.getId(), actual.getChanges().get(0).getId());
+  }
+
+  @Test
+  void getChangesFromOtherEpochNeedsResync() throws Exception {
+    MockHttpServletResponse response =
+        mockMvc.perform(get("/changes?since=1&epoch=restarted")).andExpect(status().isGone())
+            .andReturn().getResponse();
+    EmployeeChanges actual =
+        objectMapper.readValue(response.getContentAsString(), EmployeeChanges.class);
+
+    assertTrue(actual.isResync());
+    assertTrue(actual.getChanges().isEmpty());
+  }
+
+  @Test
+  void getChangesFromOtherEpochDoesNotWait() throws Exception {
+    EmployeeChanges start = getChanges("/changes");
+    long startNanos = System.nanoTime();
+    MvcResult asyncResult = mockMvc
+        .perform(get("/changes?waitMs=30000&epoch=restarted&since=" + start.getNext()))
+        .andExpect(request().asyncStarted()).andReturn();
+
+    mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isGone());
+    assertTrue(System.nanoTime() - startNanos < 10_000_000_000L);
+  }
+
+  @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
+  @Test
+  void getAllEmployeesAsSmile() throws Exception {
+    Employee created = createEmployeeForTest(createDefaultEmployeeInput());
+    // cached as JSON first, which must not be served to a client asking for Smile
+    runGetRequest("/");
+
+    MockHttpServletResponse response =
+        mockMvc.perform(get("/").accept(SMILE)).andExpect(status().isOk())
+            .andExpect(content().contentType(SMILE)).andReturn().getResponse();
+    List<Employee> actual = new ObjectMapper(new SmileFactory())
+        .readValue(response.getContentAsByteArray(), new TypeReference<List<Employee>>() {});
+
+    assertEquals(Lists.newArrayList(created), actual);
+  }
+
+  @Test
+  void searchWithWildcardOrNoAcceptAsJson() throws Exception {
+    // search isn't served by the response cache, so the message converters negotiate
+    mockMvc.perform(get("/search/{searchString}", "Test").accept(MediaType.ALL))
+        .andExpect(status().isOk()).andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    mockMvc.perform(get("/search/{searchString}", "Test")).andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+  }
+
+  @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
+  @Test
+  void getAllEmployeesAsColumnarJson() throws Exception {
+    Employee first = createEmployeeForTest(createDefaultEmployeeInput());
+    Map<String, Object> input = createDefaultEmployeeInput();
+    input.put(AGE_KEY, 40);
+    Employee second = createEmployeeForTest(input);
+
+    MockHttpServletResponse response = mockMvc
+        .perform(get("/").accept(EmployeeColumnarHttpMessageConverter.COLUMNAR_JSON))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(EmployeeColumnarHttpMessageConverter.COLUMNAR_JSON))
+        .andReturn().getResponse();
+    Map<String, List<Object>> actual = objectMapper.readValue(response.getContentAsString(),
+        new TypeReference<Map<String, List<Object>>>() {});
+
+    assertEquals(Lists.newArrayList("id", "name", "salary", "age"),
+        Lists.newArrayList(actual.keySet()));
+    List<Object> ids = actual.get("id");
+    assertEquals(2, ids.size());
+    int secondIndex = ids.indexOf(second.getId());
+    assertEquals(first.getId(), ids.get(1 - secondIndex));
+    assertEquals(40, actual.get(AGE_KEY).get(secondIndex));
+    assertEquals(30, actual.get(AGE_KEY).get(1 - secondIndex));
+  }
+
   @Test
   void createEmployee() throws Exception {
     Map<String, Object> input = createDefaultEmployeeInput();
@@ -164,6 +509,36 @@ class EmployeeControllerTests {
 
   }
 
+  @Test
+  void failIncompleteEmployeeInput() throws Exception {
+    Map<String, Object> input = new HashMap<>();
+    input.put(NAME_KEY, "Test Name");
+
+    String message = mockMvc
+        .perform(post("/").contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(input)))
+        .andExpect(status().isBadRequest()).andReturn().getResponse().getContentAsString();
+
+    assertEquals("Cannot create employee with invalid input: salary is required, age is required",
+        message);
+  }
+
+  @Test
+  void failObjectOrArrayName() throws Exception {
+    for (Object name : Lists.newArrayList(Map.of("first", "Test"), Lists.newArrayList("Test"))) {
+      Map<String, Object> input = createDefaultEmployeeInput();
+      input.put(NAME_KEY, name);
+
+      String message = mockMvc
+          .perform(post("/").contentType(MediaType.APPLICATION_JSON)
+              .content(objectMapper.writeValueAsString(input)))
+          .andExpect(status().isBadRequest()).andReturn().getResponse().getContentAsString();
+
+      assertEquals("Cannot create employee with invalid input: name must be a non-empty string",
+          message);
+    }
+  }
+
   @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
   @Test
   void deleteEmployeeById() throws Exception {
@@ -184,6 +559,74 @@ class EmployeeControllerTests {
     assertNumEmployees(1);
   }
 
+  @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
+  @Test
+  void createEmployeesFromNdjson() throws Exception {
+    Map<String, Object> invalidInput = createDefaultEmployeeInput();
+    invalidInput.put(SALARY_KEY, "Wrong");
+    String body = String.join("\n", objectMapper.writeValueAsString(createDefaultEmployeeInput()),
+        objectMapper.writeValueAsString(invalidInput),
+        objectMapper.writeValueAsString(createDefaultEmployeeInput()));
+
+    String content = mockMvc
+        .perform(post("/bulk").contentType(MediaType.APPLICATION_NDJSON).content(body))
+        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    List<EmployeeBulkResult> actual =
+        objectMapper.readValue(content, new TypeReference<List<EmployeeBulkResult>>() {});
+
+    assertEquals(3, actual.size());
+    assertEquals(Status.CREATED, actual.get(0).getStatus());
+    assertEquals(Status.INVALID, actual.get(1).getStatus());
+    assertEquals(Status.CREATED, actual.get(2).getStatus());
+    assertNumEmployees(2);
+  }
+
+  @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
+  @Test
+  void createEmployeesWithObjectOrArrayNames() throws Exception {
+    Map<String, Object> objectName = createDefaultEmployeeInput();
+    objectName.put(NAME_KEY, Map.of("first", "Test"));
+    Map<String, Object> arrayName = createDefaultEmployeeInput();
+    arrayName.put(NAME_KEY, Lists.newArrayList("Test"));
+    List<Map<String, Object>> inputs =
+        Lists.newArrayList(objectName, createDefaultEmployeeInput(), arrayName);
+
+    String content = mockMvc
+        .perform(post("/bulk").contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(inputs)))
+        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    List<EmployeeBulkResult> actual =
+        objectMapper.readValue(content, new TypeReference<List<EmployeeBulkResult>>() {});
+
+    assertEquals(3, actual.size());
+    assertEquals(Status.INVALID, actual.get(0).getStatus());
+    assertEquals(Status.CREATED, actual.get(1).getStatus());
+    assertEquals(Status.INVALID, actual.get(2).getStatus());
+    assertNumEmployees(1);
+  }
+
+  @DirtiesContext(methodMode = MethodMode.BEFORE_METHOD)
+  @Test
+  void deleteEmployeesById() throws Exception {
+    Employee first = createEmployeeForTest(createDefaultEmployeeInput());
+    Employee second = createEmployeeForTest(createDefaultEmployeeInput());
+    createEmployeeForTest(createDefaultEmployeeInput());
+    List<String> ids = Lists.newArrayList(first.getId(), "Bad Id", second.getId());
+
+    String content = mockMvc
+        .perform(delete("/bulk").contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(ids)))
+        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    List<EmployeeBulkResult> actual =
+        objectMapper.readValue(content, new TypeReference<List<EmployeeBulkResult>>() {});
+
+    assertEquals(Status.DELETED, actual.get(0).getStatus());
+    assertEquals(first.getName(), actual.get(0).getName());
+    assertEquals(Status.NOT_FOUND, actual.get(1).getStatus());
+    assertEquals(Status.DELETED, actual.get(2).getStatus());
+    assertNumEmployees(1);
+  }
+
   private void assertNumEmployees(int size) {
     try {
       MockHttpServletResponse response = runGetRequest("/");
@@ -222,6 +665,13 @@ class EmployeeControllerTests {
         .andExpect(status().isOk()).andReturn().getResponse();
   }
 
+  private EmployeeChanges getChanges(String uri) throws Exception {
+    MvcResult asyncResult = mockMvc.perform(get(uri)).andReturn();
+    String body = mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    return objectMapper.readValue(body, EmployeeChanges.class);
+  }
+
   private MockHttpServletResponse runGetRequest(String uri) throws Exception {
     return mockMvc.perform(get(uri)).andExpect(status().isOk()).andReturn().getResponse();
   }
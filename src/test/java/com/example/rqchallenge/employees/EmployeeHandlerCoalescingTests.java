@@ -0,0 +1,277 @@
+package com.example.rqchallenge.employees;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static com.example.rqchallenge.domain.EmployeeFixtures.createEmployee;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.example.rqchallenge.datasource.ReadRouting;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.employees.cache.EmployeeCache;
+import com.example.rqchallenge.employees.coalescing.SingleFlight;
+import com.example.rqchallenge.employees.index.EmployeeIndexes;
+import com.example.rqchallenge.employees.index.NameSearchIndex;
+import com.example.rqchallenge.employees.store.EmployeeStore;
+import com.example.rqchallenge.logging.PayloadLogSampler;
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Each query blocks until the whole burst has joined it, so every test sees a fully concurrent
+ * burst regardless of thread scheduling.
+ */
+@Timeout(10)
+class EmployeeHandlerCoalescingTests {
+
+  private static final int BURST = 50;
+
+  private EmployeeHandler employeeHandler = new EmployeeHandler();
+
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private AtomicInteger queries = new AtomicInteger();
+
+  private CountDownLatch release = new CountDownLatch(1);
+
+  private GatedEmployeeStore employeeStore = new GatedEmployeeStore();
+
+  private EmployeeIndexes employeeIndexes = new EmployeeIndexes();
+
+  private ExecutorService executor = Executors.newFixedThreadPool(BURST);
+
+  private Employee employee = createEmployee("Test Name", 50_000);
+
+  @BeforeEach
+  void setUp() {
+    EmployeeCache employeeCache = new EmployeeCache();
+    ReflectionTestUtils.setField(employeeCache, "employeeStore", employeeStore);
+    ReflectionTestUtils.setField(employeeCache, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(employeeCache, "maximumSize", 100L);
+    ReflectionTestUtils.setField(employeeCache, "expireAfterWriteSeconds", 300L);
+    ReflectionTestUtils.invokeMethod(employeeCache, "init");
+    NameSearchIndex nameSearchIndex = new NameSearchIndex();
+    nameSearchIndex.add(employee);
+    employeeStore.employeesById.put(employee.getId(), employee);
+    GatedEmployeeRepository employeeRepository = new GatedEmployeeRepository();
+    employeeRepository.save(employee);
+    // stands in for the indexes having loaded, which EmployeeIndexes does once the app is ready
+    ReflectionTestUtils.setField(employeeIndexes, "loaded", true);
+
+    ReflectionTestUtils.setField(employeeHandler, "employeeRepository", employeeRepository);
+    ReflectionTestUtils.setField(employeeHandler, "employeeStore", employeeStore);
+    ReflectionTestUtils.setField(employeeHandler, "employeeIndexes", employeeIndexes);
+    ReflectionTestUtils.setField(employeeHandler, "employeeCache", employeeCache);
+    ReflectionTestUtils.setField(employeeHandler, "nameSearchIndex", nameSearchIndex);
+    ReflectionTestUtils.setField(employeeHandler, "payloadLogSampler", new PayloadLogSampler());
+    ReflectionTestUtils.setField(employeeHandler, "meterRegistry", meterRegistry);
+    employeeHandler.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void coalesceSearches() throws Exception {
+    // the case differs between callers, which the index ignores
+    List<List<Employee>> results = burst("search", caller -> employeeHandler
+        .getEmployeesByNameSearch(caller % 2 == 0 ? "test" : "TEST", null).getBody());
+
+    assertEquals(1, queries.get());
+    results.forEach(result -> assertEquals(Lists.newArrayList(employee), result));
+  }
+
+  @Test
+  void coalesceHighestSalaryWhileRebuilding() throws Exception {
+    List<Integer> results = whileRebuilding(() -> burst("highestSalary",
+        caller -> employeeHandler.getHighestSalaryOfEmployees().getBody()));
+
+    assertEquals(1, queries.get());
+    results.forEach(result -> assertEquals(50_000, result));
+  }
+
+  @Test
+  void coalesceTopTenNamesWhileRebuilding() throws Exception {
+    List<List<String>> results = whileRebuilding(() -> burst("topTenNames",
+        caller -> employeeHandler.getTopTenHighestEarningEmployeeNames().getBody()));
+
+    assertEquals(1, queries.get());
+    results.forEach(result -> assertEquals(Lists.newArrayList("Test Name"), result));
+  }
+
+  @Test
+  void pinnedSearchesDoNotJoinReplicaSearches() throws Exception {
+    Future<List<Employee>> replicaSearch =
+        executor.submit(() -> employeeHandler.getEmployeesByNameSearch("test", null).getBody());
+    while (queries.get() < 1) {
+      Thread.sleep(1);
+    }
+    // as for a client that has just written
+    Future<List<Employee>> pinnedSearch = executor.submit(() -> {
+      boolean pinned = ReadRouting.pin();
+      try {
+        return employeeHandler.getEmployeesByNameSearch("test", null).getBody();
+      } finally {
+        ReadRouting.restore(pinned);
+      }
+    });
+    while (queries.get() < 2) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+
+    assertEquals(replicaSearch.get(), pinnedSearch.get());
+    assertEquals(2, calls("search", "executed"));
+    assertEquals(0, calls("search", "coalesced"));
+  }
+
+  @Test
+  void queryAgainOnceFinished() throws Exception {
+    release.countDown();
+
+    employeeHandler.getEmployeesByNameSearch("test", null);
+    employeeHandler.getEmployeesByNameSearch("test", null);
+
+    assertEquals(2, queries.get());
+    assertEquals(2, calls("search", "executed"));
+    assertEquals(0, calls("search", "coalesced"));
+  }
+
+  /**
+   * Releases the query once every other caller has joined it.
+   */
+  private <T> List<T> burst(String operation, Call<T> call) throws Exception {
+    List<Future<T>> futures = new ArrayList<>();
+    for (int i = 0; i < BURST; i++) {
+      int caller = i;
+      futures.add(executor.submit(() -> call.run(caller)));
+    }
+    while (calls(operation, "coalesced") < BURST - 1) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+    List<T> results = new ArrayList<>();
+    for (Future<T> future : futures) {
+      results.add(future.get());
+    }
+    assertEquals(1, calls(operation, "executed"));
+    return results;
+  }
+
+  /**
+   * The handler answers salary queries from the repository instead of the incomplete indexes
+   * while they are rebuilt.
+   */
+  private <T> T whileRebuilding(Callable<T> callable) throws Exception {
+    ReentrantReadWriteLock rebuildLock =
+        (ReentrantReadWriteLock) ReflectionTestUtils.getField(employeeIndexes, "rebuildLock");
+    rebuildLock.writeLock().lock();
+    try {
+      return callable.call();
+    } finally {
+      rebuildLock.writeLock().unlock();
+    }
+  }
+
+  private double calls(String operation, String outcome) {
+    return meterRegistry.get(SingleFlight.CALLS_METRIC).tag("operation", operation)
+        .tag("outcome", outcome).counter().count();
+  }
+
+  private void awaitRelease() {
+    queries.incrementAndGet();
+    try {
+      release.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private interface Call<T> {
+
+    T run(int caller) throws Exception;
+  }
+
+  private class GatedEmployeeStore implements EmployeeStore {
+
+    private final Map<String, Employee> employeesById = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(Employee employee) {
+      employeesById.put(employee.getId(), employee);
+    }
+
+    @Override
+    public boolean delete(String id) {
+      return employeesById.remove(id) != null;
+    }
+
+    @Override
+    public void saveAll(List<Employee> employees) {
+      employees.forEach(this::save);
+    }
+
+    @Override
+    public List<Employee> deleteAll(Collection<String> ids) {
+      return ids.stream().map(employeesById::remove).filter(employee -> employee != null)
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Employee> findById(String id) {
+      return Optional.ofNullable(employeesById.get(id));
+    }
+
+    @Override
+    public List<Employee> findAll() {
+      return new ArrayList<>(employeesById.values());
+    }
+
+    @Override
+    public List<Employee> findAllById(Collection<String> ids) {
+      awaitRelease();
+      return ids.stream().map(employeesById::get).filter(employee -> employee != null)
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public void flush() {
+      // nothing is buffered
+    }
+  }
+
+  private class GatedEmployeeRepository extends InMemoryEmployeeRepository {
+
+    @Override
+    public Optional<Integer> findHighestSalary() {
+      awaitRelease();
+      return super.findHighestSalary();
+    }
+
+    @Override
+    public List<String> findNamesOrderBySalaryDesc(Pageable pageable) {
+      awaitRelease();
+      return super.findNamesOrderBySalaryDesc(pageable);
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package com.example.rqchallenge.employees;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static com.example.rqchallenge.domain.EmployeeFixtures.createEmployee;
+import java.lang.Thread.State;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import com.example.rqchallenge.domain.Employee;
+
+/**
+ * Lookups of an uncached ID against H2. The lookup statement blocks until every other caller is
+ * waiting, so the burst is fully concurrent regardless of thread scheduling.
+ */
+@SpringBootTest
+@Timeout(10)
+class EmployeeLookupBurstTests {
+
+  private static final int BURST = 50;
+
+  @Autowired
+  private EmployeeHandler employeeHandler;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private GatedLookups gatedLookups;
+
+  private List<Thread> callers = new CopyOnWriteArrayList<>();
+
+  private ExecutorService executor = Executors.newFixedThreadPool(BURST, runnable -> {
+    Thread caller = new Thread(runnable);
+    callers.add(caller);
+    return caller;
+  });
+
+  @AfterEach
+  void tearDown() {
+    gatedLookups.release.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  void burstOfLookupsRunsOneQuery() throws Exception {
+    Employee employee = createEmployee("Test Name", 50_000);
+    // saved behind the handler's back, so the cache has not seen it
+    employeeRepository.save(employee);
+
+    List<Future<Employee>> futures = new ArrayList<>();
+    for (int i = 0; i < BURST; i++) {
+      futures.add(executor.submit(() -> employeeHandler.getEmployeeById(employee.getId())
+          .getBody()));
+    }
+    while (gatedLookups.statements.get() == 0 || callers.size() < BURST
+        || !callers.stream().allMatch(caller -> caller.getState() == State.WAITING)) {
+      Thread.sleep(1);
+    }
+    gatedLookups.release.countDown();
+    for (Future<Employee> future : futures) {
+      assertEquals(employee.getId(), future.get().getId());
+    }
+
+    assertEquals(1, gatedLookups.statements.get());
+  }
+
+  @TestConfiguration
+  static class GatedLookupsConfiguration {
+
+    @Bean
+    GatedLookups gatedLookups() {
+      return new GatedLookups();
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer gatedLookupsCustomizer(GatedLookups gatedLookups) {
+      return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, gatedLookups);
+    }
+  }
+
+  /**
+   * Counts the statements that select an employee by ID, holding each until released.
+   */
+  static class GatedLookups implements StatementInspector {
+
+    private static final Pattern LOOKUP =
+        Pattern.compile("select .* from employee \\w+ where \\w+\\.id=\\?");
+
+    private final AtomicInteger statements = new AtomicInteger();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Override
+    public String inspect(String sql) {
+      if (LOOKUP.matcher(sql).matches()) {
+        statements.incrementAndGet();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException(e);
+        }
+      }
+      return sql;
+    }
+  }
+}
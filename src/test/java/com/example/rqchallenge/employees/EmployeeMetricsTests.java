@@ -0,0 +1,36 @@
+package com.example.rqchallenge.employees;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class EmployeeMetricsTests {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  void exposeEndpointRepositoryAndErrorMetrics() throws Exception {
+    mockMvc.perform(get("/highestSalary"));
+    mockMvc.perform(get("/{id}", "Bad Id")).andExpect(status().isBadRequest());
+
+    String metrics = mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    assertTrue(metrics.contains("http_server_requests_seconds_bucket{exception=\"None\","
+        + "method=\"GET\",outcome=\"SUCCESS\",status=\"204\",uri=\"/highestSalary\""));
+    assertTrue(metrics.contains("spring_data_repository_invocations_seconds_bucket"));
+    assertTrue(metrics.contains(
+        "employees_errors_total{exception=\"EmployeeNotFoundException\",} 1.0"));
+    assertTrue(metrics.contains("cache_gets_total{cache=\"employeesById\""));
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.rqchallenge.employees;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static com.example.rqchallenge.domain.EmployeeFixtures.createEmployee;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import com.example.rqchallenge.domain.EmployeeSalary;
+import com.google.common.collect.Lists;
+
+@DataJpaTest
+class EmployeeRepositoryTests {
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Test
+  void findHighestSalary() {
+    saveEmployees();
+
+    assertEquals(30, employeeRepository.findHighestSalary().get());
+    assertNoEntitiesLoaded();
+  }
+
+  @Test
+  void findHighestSalaryWhenEmpty() {
+    assertTrue(employeeRepository.findHighestSalary().isEmpty());
+  }
+
+  @Test
+  void findNamesOrderBySalaryDesc() {
+    saveEmployees();
+
+    List<String> actual = employeeRepository.findNamesOrderBySalaryDesc(PageRequest.of(0, 2));
+
+    assertEquals(Lists.newArrayList("High", "Middle"), actual);
+    assertNoEntitiesLoaded();
+  }
+
+  @Test
+  void findFirst10ByOrderBySalaryDesc() {
+    saveEmployees();
+
+    List<Integer> actual = employeeRepository.findFirst10ByOrderBySalaryDesc().stream()
+        .map(EmployeeSalary::getSalary).collect(Collectors.toList());
+
+    assertEquals(Lists.newArrayList(30, 20, 10, null), actual);
+    assertNoEntitiesLoaded();
+  }
+
+  private void saveEmployees() {
+    employeeRepository.saveAll(Lists.newArrayList(createEmployee("Low", 10),
+        createEmployee("High", 30), createEmployee("No Salary", null),
+        createEmployee("Middle", 20)));
+    employeeRepository.flush();
+    entityManager.clear();
+  }
+
+  private void assertNoEntitiesLoaded() {
+    assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+  }
+}
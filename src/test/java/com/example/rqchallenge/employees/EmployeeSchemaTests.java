@@ -0,0 +1,26 @@
+package com.example.rqchallenge.employees;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class EmployeeSchemaTests {
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void topSalariesAreReadFromTheSalaryIndex() {
+    String plan = explain("select * from employee order by salary desc limit 10");
+
+    assertTrue(plan.contains("IDX_EMPLOYEE_SALARY"), plan);
+    assertTrue(plan.contains("index sorted"), plan);
+  }
+
+  private String explain(String query) {
+    return jdbcTemplate.queryForObject("explain " + query, String.class);
+  }
+}
@@ -0,0 +1,231 @@
+package com.example.rqchallenge.employees;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static com.example.rqchallenge.domain.EmployeeFixtures.createEmployee;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.EmployeeSalary;
+import com.google.common.collect.Lists;
+
+class InMemoryEmployeeRepositoryTests {
+
+  private static final int THREADS = 8;
+
+  private static final int OPERATIONS_PER_THREAD = 20_000;
+
+  private InMemoryEmployeeRepository employeeRepository = new InMemoryEmployeeRepository();
+
+  @Test
+  void saveFindAndRemove() {
+    Employee employee = employeeRepository.save(createEmployee("Test Name", 10));
+
+    assertEquals(employee, employeeRepository.findById(employee.getId()).get());
+    assertEquals(1, employeeRepository.count());
+    assertEquals(1, employeeRepository.removeById(employee.getId()));
+    assertEquals(0, employeeRepository.removeById(employee.getId()));
+    assertTrue(employeeRepository.findById(employee.getId()).isEmpty());
+    assertThrows(EmptyResultDataAccessException.class,
+        () -> employeeRepository.deleteById(employee.getId()));
+  }
+
+  @Test
+  void findByNameContainsIgnoreCase() {
+    saveEmployees();
+
+    List<String> actual = employeeRepository.findByNameContainsIgnoreCase("IDD").stream()
+        .map(Employee::getName).collect(Collectors.toList());
+
+    assertEquals(Lists.newArrayList("Middle"), actual);
+  }
+
+  @Test
+  void findHighestSalary() {
+    assertTrue(employeeRepository.findHighestSalary().isEmpty());
+
+    saveEmployees();
+
+    assertEquals(30, employeeRepository.findHighestSalary().get());
+  }
+
+  @Test
+  void findAllByExample() {
+    saveEmployees();
+    Employee probe = new Employee();
+    probe.setName("I");
+
+    List<Employee> actual = employeeRepository.findAll(Example.of(probe,
+        ExampleMatcher.matching().withIgnoreCase().withStringMatcher(StringMatcher.CONTAINING)),
+        Sort.by(Sort.Direction.DESC, "salary"));
+
+    assertEquals(Lists.newArrayList("High", "Middle"),
+        actual.stream().map(Employee::getName).collect(Collectors.toList()));
+  }
+
+  @Test
+  void findOneCountAndExistsByExample() {
+    saveEmployees();
+    Employee probe = new Employee();
+    probe.setName("High");
+    probe.setSalary(10);
+
+    assertTrue(employeeRepository.findOne(Example.of(probe)).isEmpty());
+    assertEquals(2, employeeRepository.count(Example.of(probe, ExampleMatcher.matchingAny())));
+    probe.setName(null);
+    assertEquals("Low", employeeRepository.findOne(Example.of(probe)).get().getName());
+    assertTrue(employeeRepository.exists(Example.of(probe)));
+    probe.setSalary(null);
+    assertThrows(IncorrectResultSizeDataAccessException.class,
+        () -> employeeRepository.findOne(Example.of(probe)));
+  }
+
+  @Test
+  void findByExampleFluently() {
+    saveEmployees();
+    Employee probe = new Employee();
+    probe.setAge(30);
+
+    Page<Employee> actual = employeeRepository.findBy(Example.of(probe),
+        query -> query.sortBy(Sort.by("name")).page(PageRequest.of(0, 2)));
+
+    assertEquals(4, actual.getTotalElements());
+    assertEquals(Lists.newArrayList("High", "Low"),
+        actual.stream().map(Employee::getName).collect(Collectors.toList()));
+  }
+
+  @Test
+  void findNamesOrderBySalaryDesc() {
+    saveEmployees();
+
+    assertEquals(Lists.newArrayList("High", "Middle"),
+        employeeRepository.findNamesOrderBySalaryDesc(PageRequest.of(0, 2)));
+    assertEquals(Lists.newArrayList("Low", "No Salary"),
+        employeeRepository.findNamesOrderBySalaryDesc(PageRequest.of(1, 2)));
+  }
+
+  @Test
+  void findFirst10ByOrderBySalaryDesc() {
+    saveEmployees();
+
+    List<Integer> actual = employeeRepository.findFirst10ByOrderBySalaryDesc().stream()
+        .map(EmployeeSalary::getSalary).collect(Collectors.toList());
+
+    assertEquals(Lists.newArrayList(30, 20, 10, null), actual);
+  }
+
+  @Test
+  void findPagesInIdOrder() {
+    for (int i = 0; i < 100; i++) {
+      employeeRepository.save(createEmployee("Test Name", i));
+    }
+    List<String> expected = employeeRepository.findAll(Sort.by("id")).stream()
+        .map(Employee::getId).collect(Collectors.toList());
+
+    assertEquals(expected, pageThroughIds(7));
+  }
+
+  @Test
+  void findPagesInUuidOrderLikeH2() {
+    // a string comparison would put the 7 first; UUIDs compare their halves as signed longs
+    Employee negative = createEmployee("Negative", 10);
+    negative.setId("80000000-0000-0000-0000-000000000000");
+    Employee positive = createEmployee("Positive", 10);
+    positive.setId("7fffffff-ffff-ffff-ffff-ffffffffffff");
+    employeeRepository.saveAll(Lists.newArrayList(positive, negative));
+
+    assertEquals(Lists.newArrayList(negative.getId(), positive.getId()), pageThroughIds(1));
+  }
+
+  /**
+   * Each thread owns the IDs it creates, so it knows exactly what it should find for them while
+   * the other threads write to the same shards and read everything.
+   */
+  @Test
+  void stayConsistentUnderConcurrentAccess() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Set<String>>> results = new ArrayList<>();
+    try {
+      for (int thread = 0; thread < THREADS; thread++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return runOperations();
+        }));
+      }
+      start.countDown();
+
+      Set<String> expected = new HashSet<>();
+      for (Future<Set<String>> result : results) {
+        expected.addAll(result.get());
+      }
+
+      assertEquals(expected.size(), employeeRepository.count());
+      List<String> ids = pageThroughIds(500);
+      assertEquals(expected, new HashSet<>(ids));
+      assertEquals(expected.size(), ids.size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Set<String> runOperations() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    List<String> owned = new ArrayList<>();
+    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+      int operation = random.nextInt(10);
+      if (operation < 4 || owned.isEmpty()) {
+        owned.add(employeeRepository.save(createEmployee("Test Name", i)).getId());
+      } else if (operation < 6) {
+        String id = owned.remove(random.nextInt(owned.size()));
+        assertEquals(1, employeeRepository.removeById(id));
+        assertFalse(employeeRepository.existsById(id));
+      } else if (operation < 9) {
+        String id = owned.get(random.nextInt(owned.size()));
+        assertEquals(id, employeeRepository.findById(id).get().getId());
+      } else {
+        // only checks that reading everything doesn't fail while other threads write
+        employeeRepository.findFirstPage(PageRequest.of(0, 100));
+        employeeRepository.findFirst10ByOrderBySalaryDesc();
+      }
+    }
+    return new HashSet<>(owned);
+  }
+
+  private List<String> pageThroughIds(int pageSize) {
+    List<String> ids = new ArrayList<>();
+    List<Employee> page = employeeRepository.findFirstPage(PageRequest.of(0, pageSize));
+    while (!page.isEmpty()) {
+      page.forEach(employee -> ids.add(employee.getId()));
+      page = employeeRepository.findPageAfter(ids.get(ids.size() - 1),
+          PageRequest.of(0, pageSize));
+    }
+    return ids;
+  }
+
+  private void saveEmployees() {
+    employeeRepository.saveAll(Lists.newArrayList(createEmployee("Low", 10),
+        createEmployee("High", 30), createEmployee("No Salary", null),
+        createEmployee("Middle", 20)));
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.rqchallenge.employees;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import com.example.rqchallenge.domain.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Starts the application under the in-memory profile, which must not need a database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("in-memory")
+class InMemoryProfileTests {
+
+  @Autowired
+  private ApplicationContext applicationContext;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  private ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void startsWithoutDataSource() {
+    assertEquals(0, applicationContext.getBeanNamesForType(DataSource.class).length);
+    assertTrue(AopTestUtils.getUltimateTargetObject(
+        employeeRepository) instanceof InMemoryEmployeeRepository);
+  }
+
+  @Test
+  void createAndGetEmployee() throws Exception {
+    String content = mockMvc
+        .perform(post("/").contentType(MediaType.APPLICATION_JSON).content(objectMapper
+            .writeValueAsString(Map.of("name", "Test Name", "salary", 50000, "age", 30))))
+        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    Employee created = objectMapper.readValue(content, Employee.class);
+
+    Employee actual = objectMapper.readValue(mockMvc.perform(get("/{id}", created.getId()))
+        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString(),
+        Employee.class);
+
+    assertEquals(created, actual);
+    assertEquals(created, employeeRepository.findById(created.getId()).get());
+  }
+}
@@ -0,0 +1,134 @@
+package com.example.rqchallenge.employees.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static com.example.rqchallenge.domain.EmployeeFixtures.createEmployee;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.employees.store.EmployeeStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Timeout(10)
+class EmployeeCacheTests {
+
+  private EmployeeCache employeeCache = new EmployeeCache();
+
+  private SlowEmployeeStore employeeStore = new SlowEmployeeStore();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(employeeCache, "employeeStore", employeeStore);
+    ReflectionTestUtils.setField(employeeCache, "meterRegistry", new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(employeeCache, "maximumSize", 100L);
+    ReflectionTestUtils.setField(employeeCache, "expireAfterWriteSeconds", 300L);
+    employeeCache.init();
+  }
+
+  @Test
+  void getCachesLoadedEmployee() {
+    Employee employee = createEmployee("Test Name", 50_000);
+    employeeStore.save(employee);
+    employeeStore.release.countDown();
+
+    assertEquals(employee, employeeCache.get(employee.getId()).get());
+    assertEquals(employee, employeeCache.get(employee.getId()).get());
+    assertEquals(1, employeeStore.loads.get());
+  }
+
+  @Test
+  void discardLoadOverlappingInvalidation() throws Exception {
+    Employee employee = createEmployee("Test Name", 50_000);
+    employeeStore.save(employee);
+    CompletableFuture<Optional<Employee>> overlapping =
+        CompletableFuture.supplyAsync(() -> employeeCache.get(employee.getId()));
+    employeeStore.loaded.await();
+
+    // deleted after the load read the employee, but before the load finished
+    employeeStore.delete(employee.getId());
+    employeeCache.invalidate(employee.getId());
+    employeeStore.release.countDown();
+    overlapping.get();
+
+    assertTrue(employeeCache.get(employee.getId()).isEmpty());
+    assertEquals(2, employeeStore.loads.get());
+  }
+
+  /**
+   * Holds the first load after it has read the employee until released.
+   */
+  private static class SlowEmployeeStore implements EmployeeStore {
+
+    private final Map<String, Employee> employeesById = new ConcurrentHashMap<>();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final CountDownLatch loaded = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Override
+    public void save(Employee employee) {
+      employeesById.put(employee.getId(), employee);
+    }
+
+    @Override
+    public boolean delete(String id) {
+      return employeesById.remove(id) != null;
+    }
+
+    @Override
+    public void saveAll(List<Employee> employees) {
+      employees.forEach(this::save);
+    }
+
+    @Override
+    public List<Employee> deleteAll(Collection<String> ids) {
+      return ids.stream().map(employeesById::remove).filter(employee -> employee != null)
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Employee> findById(String id) {
+      Optional<Employee> employee = Optional.ofNullable(employeesById.get(id));
+      loads.incrementAndGet();
+      loaded.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+      return employee;
+    }
+
+    @Override
+    public List<Employee> findAll() {
+      return new ArrayList<>(employeesById.values());
+    }
+
+    @Override
+    public List<Employee> findAllById(Collection<String> ids) {
+      List<Employee> employees = new ArrayList<>();
+      ids.forEach(id -> Optional.ofNullable(employeesById.get(id)).ifPresent(employees::add));
+      return employees;
+    }
+
+    @Override
+    public void flush() {
+      // nothing is buffered
+    }
+  }
+}
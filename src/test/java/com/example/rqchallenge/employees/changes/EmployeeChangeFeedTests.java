@@ -0,0 +1,80 @@
+package com.example.rqchallenge.employees.changes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static com.example.rqchallenge.domain.EmployeeFixtures.createEmployee;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.EmployeeChange;
+import com.example.rqchallenge.domain.EmployeeChange.Type;
+import com.google.common.collect.Lists;
+
+class EmployeeChangeFeedTests {
+
+  private EmployeeChangeFeed employeeChangeFeed = new EmployeeChangeFeed();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(employeeChangeFeed, "capacity", 3);
+    employeeChangeFeed.init();
+  }
+
+  @Test
+  void getChangesAfterInOrder() {
+    Employee employee = createEmployee("1", "Name 1", null, null);
+    employeeChangeFeed.created(employee);
+    employeeChangeFeed.deleted(employee.getId());
+
+    List<EmployeeChange> changes = employeeChangeFeed.getChangesAfter(0, 10).get();
+
+    assertEquals(Lists.newArrayList(new EmployeeChange(1, Type.CREATED, "1", employee),
+        new EmployeeChange(2, Type.DELETED, "1", null)), changes);
+    assertEquals(2, employeeChangeFeed.getLatest());
+  }
+
+  @Test
+  void getChangesAfterUpToLimit() {
+    employeeChangeFeed.created(createEmployee("1", "Name 1", null, null));
+    employeeChangeFeed.created(createEmployee("2", "Name 2", null, null));
+    employeeChangeFeed.created(createEmployee("3", "Name 3", null, null));
+
+    assertEquals(Lists.newArrayList(2L, 3L),
+        sequences(employeeChangeFeed.getChangesAfter(1, 2).get()));
+    assertTrue(employeeChangeFeed.getChangesAfter(3, 2).get().isEmpty());
+  }
+
+  @Test
+  void getChangesAfterOverwrittenIsEmpty() {
+    for (int i = 1; i <= 5; i++) {
+      employeeChangeFeed.created(createEmployee(Integer.toString(i), "Name " + i, null, null));
+    }
+
+    // changes 1 and 2 have been overwritten by 4 and 5
+    assertTrue(employeeChangeFeed.getChangesAfter(1, 10).isEmpty());
+    assertEquals(Lists.newArrayList(3L, 4L, 5L),
+        sequences(employeeChangeFeed.getChangesAfter(2, 10).get()));
+    // a sequence from the future, e.g. from before a restart
+    assertTrue(employeeChangeFeed.getChangesAfter(6, 10).isEmpty());
+  }
+
+  @Test
+  void awaitChangeAfterCompletesOnPublish() {
+    CompletableFuture<Void> waiter = employeeChangeFeed.awaitChangeAfter(0);
+    assertFalse(waiter.isDone());
+
+    employeeChangeFeed.created(createEmployee("1", "Name 1", null, null));
+
+    assertTrue(waiter.isDone());
+    assertTrue(employeeChangeFeed.awaitChangeAfter(0).isDone());
+  }
+
+  private List<Long> sequences(List<EmployeeChange> changes) {
+    return changes.stream().map(EmployeeChange::getSequence).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.rqchallenge.employees.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static com.example.rqchallenge.domain.EmployeeFixtures.createEmployee;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.SalarySummary;
+import com.example.rqchallenge.domain.TopEarner;
+import com.example.rqchallenge.employees.index.EmployeeColumns.Filter;
+import com.google.common.collect.Lists;
+
+class EmployeeColumnsTests {
+
+  private static final Filter ALL = Filter.of(null, null, null, null);
+
+  private EmployeeColumns employeeColumns = new EmployeeColumns();
+
+  @Test
+  void summarizeAll() {
+    employeeColumns.add(createEmployee("1", "Low", 10, 20));
+    employeeColumns.add(createEmployee("2", "High", 30, 40));
+    employeeColumns.add(createEmployee("3", "No Salary", null, null));
+
+    assertEquals(new SalarySummary(3, 40, 10, 30, 20.0), employeeColumns.summarize(ALL));
+  }
+
+  @Test
+  void summarizeSalaryAndAgeRanges() {
+    employeeColumns.add(createEmployee("1", "Young", 10, 20));
+    employeeColumns.add(createEmployee("2", "Middle", 20, 40));
+    employeeColumns.add(createEmployee("3", "Old", 30, 60));
+    employeeColumns.add(createEmployee("4", "Unknown", null, null));
+
+    assertEquals(new SalarySummary(2, 50, 20, 30, 25.0),
+        employeeColumns.summarize(Filter.of(15, null, null, null)));
+    assertEquals(new SalarySummary(2, 30, 10, 20, 15.0),
+        employeeColumns.summarize(Filter.of(null, null, null, 40)));
+  }
+
+  @Test
+  void summarizeNoMatches() {
+    employeeColumns.add(createEmployee("1", "Only", 10, 20));
+
+    SalarySummary summary = employeeColumns.summarize(Filter.of(100, null, null, null));
+
+    assertEquals(0, summary.getCount());
+    assertNull(summary.getAverage());
+  }
+
+  @Test
+  void getTopEarnersSkipsRemovedEmployees() {
+    Employee removed = createEmployee("1", "Removed", 40, 30);
+    employeeColumns.add(removed);
+    employeeColumns.add(createEmployee("2", "Second", 30, 30));
+    employeeColumns.add(createEmployee("3", "Third", 20, 30));
+    employeeColumns.add(createEmployee("4", "Fourth", 10, 30));
+    employeeColumns.add(createEmployee("5", "No Salary", null, 30));
+
+    employeeColumns.remove(removed);
+
+    List<TopEarner> expected =
+        Lists.newArrayList(new TopEarner("Second", 30), new TopEarner("Third", 20));
+    assertEquals(expected, employeeColumns.getTopEarners(ALL, 2));
+    assertEquals(4, employeeColumns.size());
+  }
+
+  @Test
+  void reusesRowsAndNamesOfRemovedEmployees() {
+    Employee removed = createEmployee("1", "Shared", 10, 30);
+    employeeColumns.add(removed);
+    employeeColumns.add(createEmployee("2", "Shared", 20, 30));
+    employeeColumns.remove(removed);
+    employeeColumns.add(createEmployee("3", "New", 30, 30));
+
+    List<TopEarner> expected =
+        Lists.newArrayList(new TopEarner("New", 30), new TopEarner("Shared", 20));
+    assertEquals(expected, employeeColumns.getTopEarners(ALL, 10));
+  }
+
+  @Test
+  void addIsIdempotent() {
+    employeeColumns.add(createEmployee("1", "First", 10, 30));
+    employeeColumns.add(createEmployee("1", "First", 10, 30));
+
+    assertEquals(1, employeeColumns.size());
+    assertEquals(1, employeeColumns.summarize(ALL).getCount());
+  }
+
+  @Test
+  void scansChunksInParallel() {
+    int count = EmployeeColumns.CHUNK_SIZE * 3 + 1;
+    for (int i = 0; i < count; i++) {
+      employeeColumns.add(createEmployee(Integer.toString(i), "Name " + i, i, i % 100));
+    }
+
+    SalarySummary summary = employeeColumns.summarize(ALL);
+    assertEquals(count, summary.getCount());
+    assertEquals((long) count * (count - 1) / 2, summary.getSum());
+    assertEquals(new TopEarner("Name " + (count - 1), count - 1),
+        employeeColumns.getTopEarners(ALL, 1).get(0));
+    assertEquals(count / 100 + 1,
+        employeeColumns.summarize(Filter.of(null, null, 0, 0)).getCount());
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.rqchallenge.employees.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static com.example.rqchallenge.domain.EmployeeFixtures.createEmployee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.google.common.collect.Lists;
+
+class NameSearchIndexTests {
+
+  private NameSearchIndex nameSearchIndex = new NameSearchIndex();
+
+  @BeforeEach
+  void setUp() {
+    nameSearchIndex.add(createEmployee("1", "Joanne Smith", null, null));
+    nameSearchIndex.add(createEmployee("2", "Mary Ann", null, null));
+    nameSearchIndex.add(createEmployee("3", "Anna Lee", null, null));
+    nameSearchIndex.add(createEmployee("4", "ANN", null, null));
+    nameSearchIndex.add(createEmployee("5", "Bob", null, null));
+  }
+
+  @Test
+  void searchOrdersByRelevance() {
+    assertEquals(Lists.newArrayList("4", "3", "2", "1"), nameSearchIndex.search("Ann", 10));
+  }
+
+  @Test
+  void searchRespectsLimit() {
+    assertEquals(Lists.newArrayList("4", "3"), nameSearchIndex.search("ann", 2));
+  }
+
+  @Test
+  void searchShorterThanTrigram() {
+    assertEquals(Lists.newArrayList("5"), nameSearchIndex.search("bO", 10));
+  }
+
+  @Test
+  void searchRequiresWholeSubstring() {
+    // every trigram of "mary anna" is indexed, but no single name contains it
+    assertTrue(nameSearchIndex.search("mary anna", 10).isEmpty());
+  }
+
+  @Test
+  void searchSkipsRemovedEmployees() {
+    nameSearchIndex.remove(createEmployee("4", "ANN", null, null));
+
+    assertEquals(Lists.newArrayList("3", "2", "1"), nameSearchIndex.search("ann", 10));
+  }
+}
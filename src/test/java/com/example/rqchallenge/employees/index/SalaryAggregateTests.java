@@ -0,0 +1,80 @@
+package com.example.rqchallenge.employees.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import com.example.rqchallenge.domain.SalaryStats;
+
+class SalaryAggregateTests {
+
+  private SalaryAggregate aggregate = new SalaryAggregate();
+
+  @Test
+  void percentilesAreWithinRelativeAccuracy() {
+    // salaries 1,000 to 100,000 in steps of 1,000, so the exact pN is N * 1,000
+    for (int salary = 1_000; salary <= 100_000; salary += 1_000) {
+      aggregate.add(salary);
+    }
+
+    Map<String, Integer> percentiles = aggregate.toStats().getPercentiles();
+
+    assertWithinAccuracy(50_000, percentiles.get("p50"));
+    assertWithinAccuracy(90_000, percentiles.get("p90"));
+    assertWithinAccuracy(99_000, percentiles.get("p99"));
+  }
+
+  @Test
+  void removeUndoesAdd() {
+    aggregate.add(10_000);
+    aggregate.add(60_000);
+    aggregate.add(null);
+
+    aggregate.remove(60_000);
+
+    SalaryStats stats = aggregate.toStats();
+    assertEquals(1, stats.getCount());
+    assertEquals(10_000, stats.getSum());
+    assertWithinAccuracy(10_000, stats.getPercentiles().get("p99"));
+    assertEquals(1, stats.getBuckets().get(0).getCount());
+    assertEquals(0, stats.getBuckets().get(2).getCount());
+  }
+
+  @Test
+  void mergeAddsCounts() {
+    aggregate.add(0);
+    aggregate.add(20_000);
+    SalaryAggregate other = new SalaryAggregate();
+    other.add(50_000);
+    other.add(400_000);
+
+    aggregate.merge(other);
+
+    SalaryStats stats = aggregate.toStats();
+    assertEquals(4, stats.getCount());
+    assertEquals(470_000, stats.getSum());
+    // ranks are taken from below, so of four salaries p50 is the second and p99 the third
+    assertWithinAccuracy(20_000, stats.getPercentiles().get("p50"));
+    assertWithinAccuracy(50_000, stats.getPercentiles().get("p99"));
+    // [null, 25000) holds 0 and 20000, [50000, 75000) 50000 and [300000, null) 400000
+    assertEquals(2, stats.getBuckets().get(0).getCount());
+    assertEquals(1, stats.getBuckets().get(2).getCount());
+    assertEquals(1, stats.getBuckets().get(7).getCount());
+  }
+
+  @Test
+  void toStatsWhenEmpty() {
+    SalaryStats stats = aggregate.toStats();
+
+    assertEquals(0, stats.getCount());
+    assertNull(stats.getAverage());
+    assertTrue(stats.getPercentiles().isEmpty());
+    assertEquals(SalaryAggregate.HISTOGRAM_BOUNDS.length + 1, stats.getBuckets().size());
+  }
+
+  private void assertWithinAccuracy(int expected, int actual) {
+    assertTrue(Math.abs(actual - expected) <= expected * SalaryAggregate.RELATIVE_ACCURACY,
+        () -> String.format("%d is not within 1%% of %d", actual, expected));
+  }
+}
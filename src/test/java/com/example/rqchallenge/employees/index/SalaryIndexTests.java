@@ -0,0 +1,73 @@
+package com.example.rqchallenge.employees.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static com.example.rqchallenge.domain.EmployeeFixtures.createEmployee;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.SalaryStats;
+import com.google.common.collect.Lists;
+
+class SalaryIndexTests {
+
+  private SalaryIndex salaryIndex = new SalaryIndex();
+
+  @Test
+  void getHighestSalary() {
+    salaryIndex.add(createEmployee("1", "Low", 10, null));
+    salaryIndex.add(createEmployee("2", "High", 30, null));
+    salaryIndex.add(createEmployee("3", "Middle", 20, null));
+
+    assertEquals(Optional.of(30), salaryIndex.getHighestSalary());
+  }
+
+  @Test
+  void getHighestSalaryWhenEmpty() {
+    assertTrue(salaryIndex.getHighestSalary().isEmpty());
+  }
+
+  @Test
+  void getTopNamesSkipsRemovedEmployees() {
+    Employee removed = createEmployee("1", "Removed", 40, null);
+    salaryIndex.add(removed);
+    salaryIndex.add(createEmployee("2", "Second", 30, null));
+    salaryIndex.add(createEmployee("3", "Third", 20, null));
+    salaryIndex.add(createEmployee("4", "No Salary", null, null));
+
+    salaryIndex.remove(removed);
+
+    List<String> expected = Lists.newArrayList("Second", "Third", "No Salary");
+    assertEquals(expected, salaryIndex.getTopNames(10));
+    assertEquals(3, salaryIndex.size());
+  }
+
+  @Test
+  void addIsIdempotent() {
+    salaryIndex.add(createEmployee("1", "First", 10, null));
+    salaryIndex.add(createEmployee("1", "First", 10, null));
+
+    assertEquals(1, salaryIndex.size());
+    assertEquals(Lists.newArrayList(10), salaryIndex.getTopSalaries(10));
+    assertEquals(1, salaryIndex.getStats().getCount());
+  }
+
+  @Test
+  void getStatsFollowsAddsAndRemoves() {
+    Employee removed = createEmployee("1", "Removed", 40, null);
+    salaryIndex.add(removed);
+    salaryIndex.add(createEmployee("2", "Second", 30, null));
+    salaryIndex.add(createEmployee("3", "Third", 20, null));
+    salaryIndex.add(createEmployee("4", "No Salary", null, null));
+
+    salaryIndex.remove(removed);
+
+    SalaryStats stats = salaryIndex.getStats();
+    assertEquals(2, stats.getCount());
+    assertEquals(50, stats.getSum());
+    assertEquals(20, stats.getMin());
+    assertEquals(30, stats.getMax());
+    assertEquals(25.0, stats.getAverage());
+  }
+}
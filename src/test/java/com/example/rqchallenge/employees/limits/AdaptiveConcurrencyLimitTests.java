@@ -0,0 +1,87 @@
+package com.example.rqchallenge.employees.limits;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimitTests {
+
+  private static final long MILLIS = 1_000_000;
+
+  @Test
+  void rejectsOverLimit() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10);
+
+    assertTrue(limit.tryAcquire());
+    assertTrue(limit.tryAcquire());
+    assertFalse(limit.tryAcquire());
+    assertEquals(2, limit.getInFlight());
+  }
+
+  @Test
+  void growsWhileBusyAndLatencyHolds() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100);
+
+    for (int i = 0; i < 50; i++) {
+      saturate(limit, 10 * MILLIS);
+    }
+
+    assertEquals(100, limit.getLimit());
+  }
+
+  @Test
+  void doesNotGrowWhileIdle() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100);
+
+    for (int i = 0; i < 50; i++) {
+      assertTrue(limit.tryAcquire());
+      limit.release(10 * MILLIS);
+    }
+
+    assertEquals(10, limit.getLimit());
+  }
+
+  @Test
+  void shrinksWhenLatencyRises() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 5, 100);
+    for (int i = 0; i < 10; i++) {
+      saturate(limit, 10 * MILLIS);
+    }
+    int steadyLimit = limit.getLimit();
+
+    for (int i = 0; i < 10; i++) {
+      saturate(limit, 100 * MILLIS);
+    }
+
+    assertTrue(limit.getLimit() < steadyLimit / 2);
+  }
+
+  @Test
+  void staysWithinBounds() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 2, 10);
+    for (int i = 0; i < 10; i++) {
+      saturate(limit, MILLIS);
+    }
+    assertEquals(10, limit.getLimit());
+
+    for (int i = 0; i < 50; i++) {
+      saturate(limit, 1000 * MILLIS);
+    }
+
+    assertEquals(2, limit.getLimit());
+  }
+
+  /**
+   * Acquires every permit, then releases them all with the provided latency.
+   */
+  private void saturate(AdaptiveConcurrencyLimit limit, long latencyNanos) {
+    int acquired = 0;
+    while (limit.tryAcquire()) {
+      acquired++;
+    }
+    for (int i = 0; i < acquired; i++) {
+      limit.release(latencyNanos);
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.example.rqchallenge.employees.limits;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import javax.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import com.example.rqchallenge.employees.limits.ConcurrencyLimitProperties.Group;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmployeeConcurrencyLimiterTests {
+
+  private EmployeeConcurrencyLimiter limiter = new EmployeeConcurrencyLimiter();
+
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private HandlerMethod light;
+
+  private HandlerMethod heavy;
+
+  private HandlerMethod otherHeavy;
+
+  private HandlerMethod thirdHeavy;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+    properties.setLight(new Group(2, 1, 2));
+    properties.setHeavy(new Group(1, 1, 1));
+    properties.setHeavyGroupLimit(2);
+    properties.setRetryAfterSeconds(3);
+    ReflectionTestUtils.setField(limiter, "properties", properties);
+    ReflectionTestUtils.setField(limiter, "meterRegistry", meterRegistry);
+    limiter.init();
+    Endpoints endpoints = new Endpoints();
+    light = new HandlerMethod(endpoints, Endpoints.class.getMethod("light"));
+    heavy = new HandlerMethod(endpoints, Endpoints.class.getMethod("heavy"));
+    otherHeavy = new HandlerMethod(endpoints, Endpoints.class.getMethod("otherHeavy"));
+    thirdHeavy = new HandlerMethod(endpoints, Endpoints.class.getMethod("thirdHeavy"));
+  }
+
+  @Test
+  void shedsRequestsOverLimitWithRetryAfter() {
+    assertEquals(HttpStatus.OK.value(), preHandle(heavy).getStatus());
+
+    MockHttpServletResponse rejected = preHandle(heavy);
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), rejected.getStatus());
+    assertEquals("3", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+    assertEquals(1, meterRegistry.get(EmployeeConcurrencyLimiter.REJECTED_METRIC)
+        .tag("endpoint", "heavy").counter().count());
+  }
+
+  @Test
+  void isolatesEndpoints() {
+    preHandle(heavy);
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), preHandle(heavy).getStatus());
+
+    assertEquals(HttpStatus.OK.value(), preHandle(light).getStatus());
+    assertEquals(HttpStatus.OK.value(), preHandle(light).getStatus());
+  }
+
+  @Test
+  void heavyEndpointsShareGroupLimit() {
+    assertEquals(HttpStatus.OK.value(), preHandle(heavy).getStatus());
+    // rejected by its own limit, which gives back the group permit it took
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), preHandle(heavy).getStatus());
+    assertEquals(HttpStatus.OK.value(), preHandle(otherHeavy).getStatus());
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), preHandle(thirdHeavy).getStatus());
+    assertEquals(HttpStatus.OK.value(), preHandle(light).getStatus());
+  }
+
+  @Test
+  void releasesGroupPermitOnCompletion() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    assertTrue(limiter.preHandle(request, response, heavy));
+    preHandle(otherHeavy);
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), preHandle(thirdHeavy).getStatus());
+
+    limiter.afterCompletion(request, response, heavy, null);
+
+    assertEquals(HttpStatus.OK.value(), preHandle(thirdHeavy).getStatus());
+  }
+
+  @Test
+  void releasesOnCompletion() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    assertTrue(limiter.preHandle(request, response, heavy));
+
+    limiter.afterCompletion(request, response, heavy, null);
+
+    assertEquals(HttpStatus.OK.value(), preHandle(heavy).getStatus());
+  }
+
+  @Test
+  void asyncDispatchKeepsOriginalPermit() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    assertTrue(limiter.preHandle(request, response, heavy));
+
+    request.setDispatcherType(DispatcherType.ASYNC);
+    assertTrue(limiter.preHandle(request, response, heavy));
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), preHandle(heavy).getStatus());
+    limiter.afterCompletion(request, response, heavy, null);
+
+    assertEquals(HttpStatus.OK.value(), preHandle(heavy).getStatus());
+  }
+
+  private MockHttpServletResponse preHandle(HandlerMethod handler) {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    limiter.preHandle(new MockHttpServletRequest(), response, handler);
+    return response;
+  }
+
+  static class Endpoints {
+
+    public void light() {}
+
+    @HeavyEndpoint
+    public void heavy() {}
+
+    @HeavyEndpoint
+    public void otherHeavy() {}
+
+    @HeavyEndpoint
+    public void thirdHeavy() {}
+  }
+}
@@ -0,0 +1,183 @@
+package com.example.rqchallenge.employees.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.example.rqchallenge.domain.Employee;
+import com.example.rqchallenge.domain.EmployeeChange;
+import com.example.rqchallenge.domain.EmployeeChange.Type;
+import com.example.rqchallenge.domain.EmployeeInput;
+import com.example.rqchallenge.employees.EmployeeHandler;
+import com.example.rqchallenge.employees.EmployeeRepository;
+import com.example.rqchallenge.employees.InMemoryEmployeeRepository;
+import com.example.rqchallenge.employees.changes.EmployeeChangeFeed;
+
+// flushes only happen when the tests ask for them
+@SpringBootTest(properties = {"employees.persistence.mode=write-behind",
+    "employees.write-behind.flush-interval-ms=3600000", "employees.write-behind.max-attempts=2"})
+class WriteBehindEmployeeStoreTests {
+
+  private static final String REPLAYED_ID = UUID.randomUUID().toString();
+
+  private static final String REPLAYED_THEN_DELETED_ID = UUID.randomUUID().toString();
+
+  private static final String REPLAYED_SEGMENT = WriteBehindJournal.segmentName(7);
+
+  @TempDir
+  static Path logDirectory;
+
+  @Autowired
+  private EmployeeHandler employeeHandler;
+
+  @Autowired
+  private EmployeeRepository employeeRepository;
+
+  @Autowired
+  private EmployeeStore employeeStore;
+
+  @Autowired
+  private EmployeeChangeFeed employeeChangeFeed;
+
+  @DynamicPropertySource
+  static void writeBehindLog(DynamicPropertyRegistry registry) throws IOException {
+    // left behind by a run that stopped before flushing
+    Files.writeString(logDirectory.resolve(REPLAYED_SEGMENT),
+        String.join("\n", createLine(REPLAYED_ID, "Replayed"),
+            createLine(REPLAYED_THEN_DELETED_ID, "Replayed Then Deleted"),
+            "D\t" + REPLAYED_THEN_DELETED_ID, "C\t{\"id\":\"torn"));
+    registry.add("employees.write-behind.log-directory", logDirectory::toString);
+  }
+
+  @Test
+  void replayUnflushedWritesOnStartup() throws Exception {
+    assertTrue(employeeRepository.existsById(REPLAYED_ID));
+    assertFalse(employeeRepository.existsById(REPLAYED_THEN_DELETED_ID));
+    assertEquals("Replayed", employeeHandler.getEmployeeById(REPLAYED_ID).getBody().getName());
+    assertFalse(Files.exists(logDirectory.resolve(REPLAYED_SEGMENT)));
+  }
+
+  @Test
+  void readUnflushedWrites() throws Exception {
+    Employee created = employeeHandler
+        .createEmployee(new EmployeeInput("Write Behind", 50000, 30)).getBody();
+    Employee deleted = employeeHandler
+        .createEmployee(new EmployeeInput("Write Behind Deleted", 50000, 30)).getBody();
+    employeeHandler.deleteEmployeeById(deleted.getId());
+
+    assertFalse(employeeRepository.existsById(created.getId()));
+    assertTrue(employeeHandler.getAllEmployees().getBody().contains(created));
+    assertFalse(employeeHandler.getAllEmployees().getBody().contains(deleted));
+    assertEquals(created, employeeStore.findById(created.getId()).get());
+
+    employeeStore.flush();
+
+    assertTrue(employeeRepository.existsById(created.getId()));
+    assertFalse(employeeRepository.existsById(deleted.getId()));
+    try (Stream<Path> files = Files.list(logDirectory)) {
+      // only the segment being appended to is left
+      assertEquals(1, files.filter(file -> file.getFileName().toString().startsWith("segment-"))
+          .count());
+    }
+  }
+
+  @Test
+  void publishWritesOnceFlushed() throws Exception {
+    employeeStore.flush();
+    long latest = employeeChangeFeed.getLatest();
+    Employee created = employeeHandler
+        .createEmployee(new EmployeeInput("Published On Flush", 50000, 30)).getBody();
+
+    assertEquals(latest, employeeChangeFeed.getLatest());
+
+    employeeStore.flush();
+
+    assertEquals(List.of(new EmployeeChange(latest + 1, Type.CREATED, created.getId(), created)),
+        employeeChangeFeed.getChangesAfter(latest, 10).get());
+  }
+
+  @Test
+  void overlayWritesFlushedDuringTheQuery() throws Exception {
+    employeeStore.flush();
+    Object repository = ReflectionTestUtils.getField(employeeStore, "employeeRepository");
+    ReflectionTestUtils.setField(employeeStore, "employeeRepository",
+        new FlushAfterQueryRepository());
+    try {
+      Employee listed = employeeHandler
+          .createEmployee(new EmployeeInput("Flushed During List", 50000, 30)).getBody();
+      assertTrue(employeeStore.findAll().contains(listed));
+
+      Employee found = employeeHandler
+          .createEmployee(new EmployeeInput("Flushed During Find", 50000, 30)).getBody();
+      assertEquals(List.of(found), employeeStore.findAllById(List.of(found.getId())));
+    } finally {
+      ReflectionTestUtils.setField(employeeStore, "employeeRepository", repository);
+    }
+  }
+
+  @Test
+  void deadLetterWriteThatKeepsFailing() throws Exception {
+    employeeStore.flush();
+    Employee committed = employeeHandler
+        .createEmployee(new EmployeeInput("Committed Despite Neighbour", 50000, 30)).getBody();
+    // longer than the name column, so it can never be inserted
+    Employee rejected = new Employee();
+    rejected.setId(UUID.randomUUID().toString());
+    rejected.setName("x".repeat(300));
+    employeeStore.save(rejected);
+
+    assertThrows(DataAccessException.class, employeeStore::flush);
+    assertTrue(employeeRepository.existsById(committed.getId()));
+
+    employeeStore.flush();
+
+    assertFalse(employeeRepository.existsById(rejected.getId()));
+    assertTrue(employeeStore.findById(rejected.getId()).isEmpty());
+    // reads showed the rejected employee, so its removal is published
+    EmployeeChange latest =
+        employeeChangeFeed.getChangesAfter(employeeChangeFeed.getLatest() - 1, 1).get().get(0);
+    assertEquals(Type.DELETED, latest.getType());
+    assertEquals(rejected.getId(), latest.getId());
+    assertTrue(Files.readString(logDirectory.resolve(WriteBehindJournal.DEAD_LETTER_FILE))
+        .contains(rejected.getId()));
+  }
+
+  private static String createLine(String id, String name) {
+    return String.format("C\t{\"id\":\"%s\",\"name\":\"%s\",\"salary\":50000,\"age\":30}", id,
+        name);
+  }
+
+  /**
+   * Lets a flush commit after the query has run, but before the store returns.
+   */
+  private class FlushAfterQueryRepository extends InMemoryEmployeeRepository {
+
+    @Override
+    public List<Employee> findAll() {
+      List<Employee> employees = super.findAll();
+      employeeStore.flush();
+      return employees;
+    }
+
+    @Override
+    public List<Employee> findAllById(Iterable<String> ids) {
+      List<Employee> employees = super.findAllById(ids);
+      employeeStore.flush();
+      return employees;
+    }
+  }
+}
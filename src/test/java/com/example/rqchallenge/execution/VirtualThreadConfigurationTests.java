@@ -0,0 +1,34 @@
+package com.example.rqchallenge.execution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.core.NestedExceptionUtils;
+
+class VirtualThreadConfigurationTests {
+
+  private ApplicationContextRunner contextRunner =
+      new ApplicationContextRunner().withUserConfiguration(VirtualThreadConfiguration.class);
+
+  @Test
+  void usePlatformThreadsByDefault() {
+    contextRunner.withPropertyValues("employees.execution.mode=platform").run(context -> {
+      assertTrue(context.getBeansOfType(TomcatProtocolHandlerCustomizer.class).isEmpty());
+    });
+  }
+
+  @Test
+  void useVirtualThreadsWhenAvailable() {
+    contextRunner.withPropertyValues("employees.execution.mode=virtual").run(context -> {
+      if (Runtime.version().feature() >= 21) {
+        assertEquals(1, context.getBeansOfType(TomcatProtocolHandlerCustomizer.class).size());
+      } else {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(context.getStartupFailure());
+        assertInstanceOf(NoSuchMethodException.class, cause);
+      }
+    });
+  }
+}